@@ -49,7 +49,7 @@ public class Analysis
     private int mMaxContext = 1;
     private Map<AnalysisSyllable, Integer> mSyllables = new TreeMap<AnalysisSyllable, Integer> ();
     private Validator mValidator = null;
-    private MyanmarParser mParser = new MyanmarParser();
+    private MyanmarParser mParser = MyanmarParser.getInstance();
     
     /**
      * Command Line analysis
@@ -212,25 +212,33 @@ public class Analysis
             BufferedReader lineReader = new BufferedReader(new StringReader(line));
             StringWriter validateWriter = new StringWriter();
             BufferedWriter lineWriter = new BufferedWriter(validateWriter);
-            MyanmarValidator.Status s = mValidator.validate(lineReader, lineWriter);
+            // a MyanmarValidator validates each line in its own session
+            ValidationSession session = null;
+            MyanmarValidator.Status s;
+            if (mValidator instanceof MyanmarValidator)
+            {
+                session = ((MyanmarValidator)mValidator).newSession("Line " +
+                    Integer.toString(lineNum));
+                s = session.validate(lineReader, lineWriter);
+            }
+            else s = mValidator.validate(lineReader, lineWriter);
             lineWriter.close();
             if (s != MyanmarValidator.Status.Invalid)
             {
                 String validated = validateWriter.toString();
-                int offset = 0;
                 ArrayDeque<String> syllables = new ArrayDeque<String>(); 
-                MyanmarParser.ClusterProperties cp = mParser.getNextSyllable(validated, offset);
-                if (cp == null)
+                SyllableCursor cursor = mParser.newSession(validated).cursor();
+                if (!cursor.advance())
                 {
                 	sLogger.warning("Failed to get syllable for: " + validated);
                 }
                 else
                 {
-	                String syllableText = validated.substring(cp.getStart(), cp.getEnd());
-	                while (cp != null && cp.getBreakStatus() != MyanmarParser.MyPairStatus.MY_PAIR_EOL)
+	                String syllableText = validated.substring(cursor.getStart(), cursor.getEnd());
+	                while (cursor.getStatus() != MyanmarParser.PAIR_EOL)
 	                {
 	                    if (mParser.isMyanmarCharacter(syllableText.charAt(0)) == false ||
-	                        cp.getBreakStatus() == MyanmarParser.MyPairStatus.MY_PAIR_WORD_BREAK)
+	                        cursor.getStatus() == MyanmarParser.PAIR_WORD_BREAK)
 	                    {
 	                    	syllables.addLast(syllableText);
 	                        processSyllables(syllables);
@@ -240,19 +248,15 @@ public class Analysis
 	                    {
 	                        syllables.addLast(syllableText);
 	                    }
-	                    offset = cp.getEnd();
-	                    cp = mParser.getNextSyllable(validated, offset);
-	                    syllableText = validated.substring(cp.getStart(), cp.getEnd());
+	                    cursor.advance();
+	                    syllableText = validated.substring(cursor.getStart(), cursor.getEnd());
 	                }
 	                if (mParser.isMyanmarCharacter(syllableText.charAt(0)))
 	                				{
 	                    syllables.addLast(syllableText);
-	                    if (mValidator instanceof MyanmarValidator)
-	                    	{
-	                    ((MyanmarValidator)mValidator).setRef("Line " +
-	                    		Integer.toString(lineNum));
-	                    	}
-	                    Status sylStatus = mValidator.validate(syllableText, null);
+	                    Status sylStatus = (session != null)?
+	                        session.validate(syllableText, null) :
+	                        mValidator.validate(syllableText, null);
 	                    if (sylStatus != Status.Valid)
 	                    {
 	                    	sLogger.warning("Syllable appears invalid: " + syllableText + " on line\n" + line);
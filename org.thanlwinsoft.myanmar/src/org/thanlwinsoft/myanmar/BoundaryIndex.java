@@ -0,0 +1,304 @@
+/*
+ * Title: BoundaryIndex
+ * Description: Succinct index of the syllable boundaries of a text
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+/**
+ * Immutable index of the syllable boundaries of a text, and optionally of
+ * its line break opportunities, stored as bitmaps of about one bit per 
+ * character. The syllable containing an offset and the offset of a 
+ * syllable are found in constant time without segmenting the text again,
+ * so an index can be built once when a document is stored and kept with
+ * it. The boundaries are the same as those found by ParseSession.segment
+ * and ParseSession.getNextLineBreak. The line methods may only be called
+ * if line breaks were indexed.
+ */
+public class BoundaryIndex
+{
+    private static final int SEGMENT_BLOCK = 256;
+    private final int mStart;
+    private final int mLimit;
+    private final Bits mSyllables;
+    private final Bits mLines;
+
+    /**
+     * Segments the text of a session and indexes its boundaries.
+     * @param session session of the text to index
+     * @param lineBreaks true to index line break opportunities as well as
+     * syllables
+     */
+    public BoundaryIndex(ParseSession session, boolean lineBreaks)
+    {
+        mStart = session.getStart();
+        mLimit = session.getLimit();
+        int length = mLimit - mStart;
+        long [] syllables = new long[Math.max((length + 63) >>> 6, 1)];
+        long [] lines = lineBreaks? new long[syllables.length] : null;
+        if (length > 0)
+        {
+            syllables[0] = 1;
+            if (lines != null) lines[0] = 1;
+        }
+        int [] ends = new int[SEGMENT_BLOCK];
+        byte [] statuses = new byte[SEGMENT_BLOCK];
+        int offset = mStart;
+        while (offset < mLimit)
+        {
+            int count = session.segment(offset, ends, statuses);
+            for (int i = 0; i < count; i++)
+            {
+                int end = ends[i] - mStart;
+                if (end == length) break;
+                syllables[end >>> 6] |= 1L << end;
+                if (lines != null && MyanmarParser.isLineBreakCode(statuses[i]))
+                    lines[end >>> 6] |= 1L << end;
+            }
+            offset = ends[count - 1];
+        }
+        mSyllables = new Bits(syllables);
+        mLines = (lines == null)? null : new Bits(lines);
+    }
+
+    /**
+     * 
+     * @return first index of the indexed text range
+     */
+    public int getStart()
+    {
+        return mStart;
+    }
+
+    /**
+     * 
+     * @return end of the indexed text range (exclusive)
+     */
+    public int getLimit()
+    {
+        return mLimit;
+    }
+
+    /**
+     * 
+     * @return number of syllables
+     */
+    public int getSyllableCount()
+    {
+        return mSyllables.mCount;
+    }
+
+    /**
+     * Finds the syllable containing offset.
+     * @param offset index of a character in the text range
+     * @return index of the syllable or getSyllableCount() if offset is not
+     * before the limit
+     */
+    public int syllableIndexOf(int offset)
+    {
+        if (offset >= mLimit) return mSyllables.mCount;
+        return mSyllables.rank(offset - mStart) - 1;
+    }
+
+    /**
+     * 
+     * @param index syllable index, getSyllableCount() gives the limit
+     * @return start offset of syllable index
+     */
+    public int getSyllableStart(int index)
+    {
+        if (index >= mSyllables.mCount) return mLimit;
+        return mStart + mSyllables.select(index);
+    }
+
+    /**
+     * 
+     * @param index syllable index
+     * @return end offset of syllable index (exclusive)
+     */
+    public int getSyllableEnd(int index)
+    {
+        return getSyllableStart(index + 1);
+    }
+
+    /**
+     * 
+     * @param offset index in the text range
+     * @return true if a syllable starts at offset or offset is the limit
+     */
+    public boolean isSyllableBoundary(int offset)
+    {
+        return offset == mLimit || mSyllables.get(offset - mStart);
+    }
+
+    /**
+     * 
+     * @return true if line break opportunities were indexed
+     */
+    public boolean hasLineBreaks()
+    {
+        return mLines != null;
+    }
+
+    /**
+     * 
+     * @return number of line segments, which end at a line break 
+     * opportunity or the limit
+     */
+    public int getLineCount()
+    {
+        return mLines.mCount;
+    }
+
+    /**
+     * Finds the line segment containing offset.
+     * @param offset index of a character in the text range
+     * @return index of the line segment or getLineCount() if offset is not
+     * before the limit
+     */
+    public int lineIndexOf(int offset)
+    {
+        if (offset >= mLimit) return mLines.mCount;
+        return mLines.rank(offset - mStart) - 1;
+    }
+
+    /**
+     * 
+     * @param index line segment index, getLineCount() gives the limit
+     * @return start offset of line segment index
+     */
+    public int getLineStart(int index)
+    {
+        if (index >= mLines.mCount) return mLimit;
+        return mStart + mLines.select(index);
+    }
+
+    /**
+     * 
+     * @param offset index in the text range
+     * @return true if a line segment starts at offset or offset is the 
+     * limit
+     */
+    public boolean isLineBreak(int offset)
+    {
+        return offset == mLimit || mLines.get(offset - mStart);
+    }
+
+    /**
+     * Bitmap with rank and select. The number of set bits before every
+     * superblock of 8 words is stored, so rank counts the bits of at most
+     * 8 words. The superblock of every 512th set bit is sampled, so select
+     * only searches the superblocks between two samples.
+     */
+    private static final class Bits
+    {
+        private static final int SUPER_SHIFT = 3;
+        private static final int SAMPLE_SHIFT = 9;
+        private final long [] mWords;
+        private final int [] mRanks;
+        private final int [] mSamples;
+        private final int mCount;
+
+        Bits(long [] words)
+        {
+            mWords = words;
+            int superCount = ((words.length - 1) >>> SUPER_SHIFT) + 1;
+            mRanks = new int[superCount + 1];
+            int count = 0;
+            for (int i = 0; i < words.length; i++)
+            {
+                if ((i & ((1 << SUPER_SHIFT) - 1)) == 0)
+                    mRanks[i >>> SUPER_SHIFT] = count;
+                count += Long.bitCount(words[i]);
+            }
+            mRanks[superCount] = count;
+            mCount = count;
+            // one sample for each 512 set bits, including the last ones
+            mSamples = new int[(count + (1 << SAMPLE_SHIFT) - 1) >>> 
+                               SAMPLE_SHIFT];
+            int sample = 0;
+            for (int s = 0; s < superCount; s++)
+            {
+                while (sample < mSamples.length && 
+                       (sample << SAMPLE_SHIFT) < mRanks[s + 1])
+                    mSamples[sample++] = s;
+            }
+        }
+
+        boolean get(int i)
+        {
+            return (mWords[i >>> 6] & (1L << i)) != 0;
+        }
+
+        /**
+         * @return number of set bits at or before i
+         */
+        int rank(int i)
+        {
+            int word = i >>> 6;
+            int rank = mRanks[word >>> SUPER_SHIFT];
+            for (int w = word & -(1 << SUPER_SHIFT); w < word; w++)
+                rank += Long.bitCount(mWords[w]);
+            return rank + 
+                Long.bitCount(mWords[word] & (-1L >>> (63 - (i & 63))));
+        }
+
+        /**
+         * @return position of set bit n, counting from 0
+         */
+        int select(int n)
+        {
+            int sample = n >>> SAMPLE_SHIFT;
+            int low = mSamples[sample];
+            int high = (sample + 1 < mSamples.length)? 
+                mSamples[sample + 1] : mRanks.length - 2;
+            // last superblock with no more than n set bits before it
+            while (low < high)
+            {
+                int mid = (low + high + 1) >>> 1;
+                if (mRanks[mid] <= n)
+                    low = mid;
+                else
+                    high = mid - 1;
+            }
+            int rest = n - mRanks[low];
+            int w = low << SUPER_SHIFT;
+            int bits = Long.bitCount(mWords[w]);
+            while (rest >= bits)
+            {
+                rest -= bits;
+                bits = Long.bitCount(mWords[++w]);
+            }
+            long word = mWords[w];
+            for (; rest > 0; rest--)
+                word &= word - 1;
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+    }
+}
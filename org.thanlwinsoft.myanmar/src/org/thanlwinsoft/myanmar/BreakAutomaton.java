@@ -0,0 +1,325 @@
+/*
+ * Title: BreakAutomaton
+ * Description: Deterministic automaton compiled from BreakRules
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The break rules for one language compiled into a deterministic automaton,
+ * which reads one character symbol per step. A state stands for the last
+ * 3 symbols read, so when the symbol of the character at i + 3 is read the
+ * transition gives the break status between the characters at i and i + 1
+ * as well as the next state. Each pair then costs one table lookup instead
+ * of testing the context rules against a copy of the characters.
+ * States which always give the same statuses are merged when the automaton
+ * is built, so there are far fewer states than triples of symbols.
+ * Characters named by the rules are compiled quickly as long as they 
+ * appear at few positions, see MAX_COMBINATIONS.
+ * <p>
+ * The start state of a text range is found from its first 3 symbols with
+ * start and the symbol of a character after the end of the range is 
+ * that of a space, see pad.
+ * </p>
+ */
+final class BreakAutomaton
+{
+    /** mask of the PAIR_* status in a transition */
+    static final int STATUS_MASK = 0x7;
+    /** shift of the next state in a transition */
+    static final int STATE_SHIFT = 3;
+
+    /** limit on the combinations of symbol classes used to compile */
+    static final int MAX_COMBINATIONS = 1 << 22;
+
+    /** symbol of each character, shared by the automata of a rule set */
+    private final byte [] mSymbols;
+    private final int mSymbolCount;
+    private final int mPad;
+    /** class of each symbol as the first character of a pair */
+    private final int [] mFirst;
+    /** class of each symbol as the second character of a pair */
+    private final int [] mSecond;
+    /** class of each symbol as the character after a pair */
+    private final int [] mThird;
+    private final int mThirdCount;
+    /** class of the last 2 of 3 symbols, indexed by mSecond and mThird */
+    private final int [] mMiddles;
+    private final int mMiddleCount;
+    /** state for each class of the first of 3 symbols and middle class */
+    private final int [] mStart;
+    /**
+     * next state << STATE_SHIFT | status, indexed by state + symbol, where
+     * states are multiplied by the symbol count
+     */
+    private final int [] mTransitions;
+
+    /**
+     * Compiles the rules for a language. The statuses are only evaluated 
+     * once for the symbols which the rules treat alike at each position of
+     * a pattern. Two sequences of 3 symbols lead to the same state if they
+     * give the same statuses for the next symbol, their last 2 symbols give
+     * the same statuses for the next 2 and their last symbol gives the same
+     * statuses for the next 3, so the states are found without comparing
+     * every sequence.
+     * @param rules
+     * @param language LANG_* value or -1 to ignore rules for a language
+     * @throws IllegalArgumentException if the rules name too many 
+     * characters at the same positions
+     */
+    BreakAutomaton(BreakRules rules, int language)
+    {
+        mSymbols = rules.getSymbols();
+        int n = rules.getSymbolCount();
+        mSymbolCount = n;
+        mPad = rules.symbol(' ');
+        int [][] classes = new int[4][n];
+        int [][] examples = new int[4][];
+        for (int i = 0; i < 4; i++)
+        {
+            examples[i] = new int[rules.classify(i, language, classes[i])];
+            for (int s = n - 1; s >= 0; s--)
+            {
+                examples[i][classes[i][s]] = s;
+            }
+        }
+        int m0 = examples[0].length;
+        int m1 = examples[1].length;
+        int m2 = examples[2].length;
+        int m3 = examples[3].length;
+        if ((long)m0 * m1 * m2 * m3 > MAX_COMBINATIONS)
+            throw new IllegalArgumentException(
+                "Too many characters named at the same positions in rules");
+        // status for each combination of classes
+        int [] outputs = rules.evaluate(examples, language);
+        // classes of a symbol at the first 2 and the first 3 positions
+        mFirst = classes[0];
+        mSecond = new int[n];
+        mThird = new int[n];
+        int [] pairs = new int[m0 * m1];
+        int [] triples = new int[m0 * m1 * m2];
+        Arrays.fill(pairs, -1);
+        Arrays.fill(triples, -1);
+        int [] secondExamples = new int[n];
+        int [] thirdExamples = new int[n];
+        int secondCount = 0;
+        int thirdCount = 0;
+        for (int s = 0; s < n; s++)
+        {
+            int pair = classes[0][s] * m1 + classes[1][s];
+            if (pairs[pair] < 0)
+            {
+                secondExamples[secondCount] = s;
+                pairs[pair] = secondCount++;
+            }
+            mSecond[s] = pairs[pair];
+            int triple = pair * m2 + classes[2][s];
+            if (triples[triple] < 0)
+            {
+                thirdExamples[thirdCount] = s;
+                triples[triple] = thirdCount++;
+            }
+            mThird[s] = triples[triple];
+        }
+        mThirdCount = thirdCount;
+        // statuses of the 3 pairs starting with a symbol
+        int [] lasts = numberRows(outputs, m1 * m2 * m3);
+        // statuses of the 2 pairs starting with the first of 2 symbols, and
+        // of the pairs after them
+        int [] pairRows = numberRows(outputs, m2 * m3);
+        int [] seconds = new int[m0 * secondCount];
+        HashMap<Long, Integer> numbers = new HashMap<Long, Integer>();
+        for (int k = 0; k < m0; k++)
+        {
+            for (int y = 0; y < secondCount; y++)
+            {
+                int z = secondExamples[y];
+                seconds[k * secondCount + y] = number(numbers,
+                    ((long)pairRows[k * m1 + classes[1][z]] << 32) |
+                    lasts[classes[0][z]]);
+            }
+        }
+        // the last 2 of 3 symbols only change the state by the classes of 
+        // the pair starting with the first symbol and by the statuses of 
+        // the pairs after it
+        mMiddles = new int[secondCount * thirdCount];
+        int [] middleExamples = new int[mMiddles.length];
+        numbers.clear();
+        for (int i = 0; i < mMiddles.length; i++)
+        {
+            int y = secondExamples[i / thirdCount];
+            int z = thirdExamples[i % thirdCount];
+            int count = numbers.size();
+            mMiddles[i] = number(numbers, 
+                ((long)(classes[1][y] * m2 + classes[2][z]) << 32) |
+                seconds[classes[0][y] * secondCount + mSecond[z]]);
+            if (mMiddles[i] == count) middleExamples[count] = i;
+        }
+        int middleCount = numbers.size();
+        mMiddleCount = middleCount;
+        // statuses of the pair starting with the first of 3 symbols and of
+        // the pairs after them, which is the state after reading them
+        int [] rows = numberRows(outputs, m3);
+        mStart = new int[m0 * middleCount];
+        int [] stateExamples = new int[mStart.length];
+        numbers.clear();
+        for (int t = 0; t < mStart.length; t++)
+        {
+            int k = t / middleCount;
+            int i = middleExamples[t % middleCount];
+            int y = secondExamples[i / thirdCount];
+            int z = thirdExamples[i % thirdCount];
+            int count = numbers.size();
+            int state = number(numbers, 
+                ((long)rows[(k * m1 + classes[1][y]) * m2 + classes[2][z]]
+                 << 32) | seconds[classes[0][y] * secondCount + mSecond[z]]);
+            if (state == count) stateExamples[state] = t;
+            mStart[t] = state * n;
+        }
+        int count = numbers.size();
+        mTransitions = new int[count * n];
+        for (int state = 0; state < count; state++)
+        {
+            int t = stateExamples[state];
+            int k = t / middleCount;
+            int i = middleExamples[t % middleCount];
+            int y = secondExamples[i / thirdCount];
+            int z = thirdExamples[i % thirdCount];
+            int row = ((k * m1 + classes[1][y]) * m2 + classes[2][z]) * m3;
+            int first = classes[0][y] * middleCount;
+            int middle = mSecond[z] * thirdCount;
+            for (int s = 0; s < n; s++)
+            {
+                mTransitions[state * n + s] = 
+                    (mStart[first + mMiddles[middle + mThird[s]]] 
+                     << STATE_SHIFT) | outputs[row + classes[3][s]];
+            }
+        }
+    }
+
+    /**
+     * Numbers the rows of a table, so equal rows have the same number.
+     * @param outputs table
+     * @param length length of a row
+     * @return number of each row
+     */
+    private static int [] numberRows(int [] outputs, int length)
+    {
+        HashMap<IntBuffer, Integer> numbers = new HashMap<IntBuffer, Integer>();
+        int [] rows = new int[outputs.length / length];
+        for (int i = 0; i < rows.length; i++)
+        {
+            IntBuffer row = IntBuffer.wrap(outputs, i * length, length).slice();
+            Integer number = numbers.get(row);
+            if (number == null)
+            {
+                number = numbers.size();
+                numbers.put(row, number);
+            }
+            rows[i] = number;
+        }
+        return rows;
+    }
+
+    /**
+     * @param numbers numbers of the keys seen so far
+     * @param key
+     * @return number of the key, which is the previous numbers.size() if it
+     * is new
+     */
+    private static int number(HashMap<Long, Integer> numbers, long key)
+    {
+        Integer number = numbers.get(key);
+        if (number == null)
+        {
+            number = numbers.size();
+            numbers.put(key, number);
+        }
+        return number;
+    }
+
+    /**
+     * @param c
+     * @return symbol of c
+     */
+    int symbol(char c)
+    {
+        return mSymbols[c];
+    }
+
+    /**
+     * @return symbol of characters after the end of the text
+     */
+    int pad()
+    {
+        return mPad;
+    }
+
+    /**
+     * @param s0 symbol of the first character of a pair
+     * @param s1 symbol of the second character of the pair
+     * @param s2 symbol of the character after the pair
+     * @return state before reading the symbol after s2
+     */
+    int start(int s0, int s1, int s2)
+    {
+        return mStart[mFirst[s0] * mMiddleCount + 
+                      mMiddles[mSecond[s1] * mThirdCount + mThird[s2]]];
+    }
+
+    /**
+     * @param state current state
+     * @param s3 symbol of the second character after the pair
+     * @return next state << STATE_SHIFT | PAIR_* status of the pair
+     */
+    int next(int state, int s3)
+    {
+        return mTransitions[state + s3];
+    }
+
+    /**
+     * @return PAIR_* status between the characters of s0 and s1
+     */
+    int getStatus(int s0, int s1, int s2, int s3)
+    {
+        return mTransitions[start(s0, s1, s2) + s3] & STATUS_MASK;
+    }
+
+    /**
+     * @return number of states after merging
+     */
+    int getStateCount()
+    {
+        return mTransitions.length / mSymbolCount;
+    }
+}
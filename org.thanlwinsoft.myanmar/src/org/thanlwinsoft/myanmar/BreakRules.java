@@ -0,0 +1,545 @@
+/*
+ * Title: BreakRules
+ * Description: Declarative rules for the break status of character pairs
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.thanlwinsoft.myanmar.MyanmarParser.MySyllablePart;
+
+/**
+ * The rules which decide the break status between two characters from the
+ * pair and the 2 characters following it. The rules are compiled into a
+ * BreakAutomaton for each language when they are created, so a parser
+ * using a modified rule set is as fast as one using the default rules.
+ * Rule sets are immutable and may be shared between threads.
+ * <p>
+ * Rules are written one per line, # starts a comment:
+ * <pre>
+ * table    CLASS CLASS = STATUS
+ * override C0 C1 C2 C3 [LANG] = STATUS
+ * context  C0 C1 C2 C3 [LANG] = STATUS
+ * </pre>
+ * C0 C1 is the pair and C2 C3 the characters after it, each is * for any
+ * character, a class UNKNOWN, CONSONANT, MEDIAL, VOWEL, TONE, 1039, 103A,
+ * NUMBER or SECTION, or a single character written as U+XXXX. LANG is MY,
+ * KSW or PWO. STATUS is ILLEGAL, NO, SYL, WORD or PUNCTUATION and CONTEXT
+ * may also be used in the table. Characters after the end of the text
+ * match as spaces.
+ * </p><p>
+ * The first override which matches decides the status, otherwise the
+ * table entry for the classes of C0 and C1 does. If that is CONTEXT, the
+ * first matching context rule decides and the pair is a syllable break if
+ * there is none.
+ * </p><p>
+ * Each character named by the rules becomes a symbol of the automata and
+ * there may be at most Byte.MAX_VALUE symbols, including one for each 
+ * class. A rule set naming each character at only one or two positions of
+ * the patterns compiles in a fraction of a second even with the most
+ * characters. Naming characters at every position multiplies the work, so
+ * extend throws IllegalArgumentException if the rules would have to be
+ * evaluated for more than BreakAutomaton.MAX_COMBINATIONS combinations of 
+ * characters, which is reached with about 40 characters named at every 
+ * position.
+ * </p>
+ */
+public final class BreakRules
+{
+    /** special cases which are applied with MyanmarParser.PAIR_TABLE */
+    static final String DEFAULT_RULES =
+        "# U+2060 WORD JOINER\n" +
+        "override * U+2060 * * = NO\n" +
+        "override U+2060 * * * = NO\n" +
+        "context U+1021 * * * MY = NO\n" +
+        "context * U+002D * * = NO\n" +
+        "context * U+103F * * = NO\n" +
+        "# the consonant is killed or stacked, so it ends this syllable\n" +
+        "context * * U+1037 U+103A = NO\n" +
+        "context * * U+1039 * = NO\n" +
+        "# Karen (and also some loan words in Myanmar) can have a " +
+        "starting 103A\n" +
+        "context * * U+103A * MY = NO\n";
+
+    /** pattern matching any character */
+    private static final int ANY = -1;
+    /** flag of a pattern matching one character rather than a class */
+    private static final int CHAR_PATTERN = 0x10000;
+    private static final int NUM_PARTS =
+        MySyllablePart.MY_SYLLABLE_NUM_PARTS.ordinal();
+    private static final String PART_PREFIX = "MY_SYLLABLE_";
+    private static final String [] STATUS_NAMES =
+        { "ILLEGAL", "NO", "SYL", "WORD", "PUNCTUATION", "CONTEXT" };
+    private static final String [] LANG_NAMES = { "MY", "KSW", "PWO" };
+    /** index in mAutomata used for a language hint without its own rules */
+    private static final int OTHER_LANGUAGE = LANG_NAMES.length;
+
+    private final int [][] mTable;
+    private final List<Rule> mOverrides;
+    private final List<Rule> mContexts;
+    /** symbol of each character, 0 to NUM_PARTS - 1 is its class */
+    private final byte [] mSymbols = new byte[0x10000];
+    /** character of each symbol, or -1 for a class */
+    private final int [] mSymbolChars;
+    /** class of each symbol */
+    private final int [] mSymbolParts;
+    private final BreakAutomaton [] mAutomata =
+        new BreakAutomaton[OTHER_LANGUAGE + 1];
+
+    /**
+     * A rule matching a pair and the 2 characters after it
+     */
+    private static class Rule
+    {
+        final int [] mPatterns;
+        final int mLanguage;
+        final int mStatus;
+
+        Rule(int [] patterns, int language, int status)
+        {
+            mPatterns = patterns;
+            mLanguage = language;
+            mStatus = status;
+        }
+    }
+
+    private BreakRules(int [][] table, List<Rule> overrides,
+                       List<Rule> contexts)
+    {
+        mTable = table;
+        mOverrides = overrides;
+        mContexts = contexts;
+        TreeSet<Integer> chars = new TreeSet<Integer>();
+        boolean [] languages = new boolean[OTHER_LANGUAGE];
+        collect(overrides, chars, languages);
+        collect(contexts, chars, languages);
+        if (NUM_PARTS + chars.size() > Byte.MAX_VALUE)
+            throw new IllegalArgumentException(
+                "Too many characters in rules, the limit is " + 
+                (Byte.MAX_VALUE - NUM_PARTS));
+        mSymbolChars = new int[NUM_PARTS + chars.size()];
+        mSymbolParts = new int[mSymbolChars.length];
+        for (int c = 0; c < mSymbols.length; c++)
+        {
+            mSymbols[c] = (byte)MyanmarParser.getCharClassCode((char)c);
+        }
+        for (int s = 0; s < NUM_PARTS; s++)
+        {
+            mSymbolChars[s] = -1;
+            mSymbolParts[s] = s;
+        }
+        int s = NUM_PARTS;
+        for (int c : chars)
+        {
+            mSymbolChars[s] = c;
+            mSymbolParts[s] = mSymbols[c];
+            mSymbols[c] = (byte)s++;
+        }
+        mAutomata[OTHER_LANGUAGE] = new BreakAutomaton(this, ANY);
+        for (int lang = 0; lang < OTHER_LANGUAGE; lang++)
+        {
+            mAutomata[lang] = languages[lang]?
+                new BreakAutomaton(this, lang) : mAutomata[OTHER_LANGUAGE];
+        }
+    }
+
+    /**
+     * Finds the characters and languages used by rules.
+     * @param rules
+     * @param chars receives the characters used by patterns
+     * @param languages set to true for each language used
+     */
+    private static void collect(List<Rule> rules, TreeSet<Integer> chars,
+                                boolean [] languages)
+    {
+        for (Rule rule : rules)
+        {
+            for (int pattern : rule.mPatterns)
+            {
+                if (pattern != ANY && (pattern & CHAR_PATTERN) != 0)
+                    chars.add(pattern & 0xFFFF);
+            }
+            if (rule.mLanguage != ANY) languages[rule.mLanguage] = true;
+        }
+    }
+
+    /**
+     * @return the rules used by MyanmarParser.getInstance()
+     */
+    public static BreakRules getDefault()
+    {
+        return MyanmarParser.getInstance().getBreakRules();
+    }
+
+    /**
+     * Creates a rule set from a pair table and rule text.
+     * @param table status of each pair of MySyllablePart ordinals
+     * @param rules rules in the syntax described above
+     * @return rule set
+     */
+    static BreakRules create(int [][] table, String rules)
+    {
+        int [][] copy = new int[NUM_PARTS][];
+        for (int i = 0; i < NUM_PARTS; i++)
+        {
+            copy[i] = table[i].clone();
+        }
+        BreakRules empty = new BreakRules(copy, new ArrayList<Rule>(),
+                                          new ArrayList<Rule>());
+        return empty.extend(rules);
+    }
+
+    /**
+     * Creates a new rule set from these rules and some more. Table entries
+     * replace the existing ones, the new override and context rules are
+     * tried before the existing rules.
+     * @param rules rules in the syntax described above
+     * @return new rule set
+     * @throws IOException if the rules can not be read
+     * @throws IllegalArgumentException if a rule is not valid or the rules
+     * name too many characters
+     */
+    public BreakRules extend(Reader rules) throws IOException
+    {
+        int [][] table = new int[NUM_PARTS][];
+        for (int i = 0; i < NUM_PARTS; i++)
+        {
+            table[i] = mTable[i].clone();
+        }
+        List<Rule> overrides = new ArrayList<Rule>();
+        List<Rule> contexts = new ArrayList<Rule>();
+        BufferedReader reader = new BufferedReader(rules);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null)
+        {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment > -1) line = line.substring(0, comment);
+            String [] tokens = line.trim().split("\\s+");
+            if (tokens.length == 1 && tokens[0].length() == 0) continue;
+            try
+            {
+                parseRule(tokens, table, overrides, contexts);
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new IllegalArgumentException("Line " + lineNumber +
+                    ": " + e.getMessage() + " in " + line, e);
+            }
+        }
+        overrides.addAll(mOverrides);
+        contexts.addAll(mContexts);
+        return new BreakRules(table, overrides, contexts);
+    }
+
+    /**
+     * Creates a new rule set from these rules and some more.
+     * @see #extend(Reader)
+     * @param rules rules in the syntax described above
+     * @return new rule set
+     * @throws IllegalArgumentException if a rule is not valid or the rules
+     * name too many characters
+     */
+    public BreakRules extend(String rules)
+    {
+        try
+        {
+            return extend(new StringReader(rules));
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void parseRule(String [] tokens, int [][] table,
+                                  List<Rule> overrides, List<Rule> contexts)
+    {
+        int n = tokens.length;
+        if (n < 4 || !tokens[n - 2].equals("="))
+            throw new IllegalArgumentException("Expected = STATUS");
+        int status = parseName(tokens[n - 1], STATUS_NAMES, "status");
+        if (tokens[0].equals("table"))
+        {
+            if (n != 5)
+                throw new IllegalArgumentException("Expected 2 classes");
+            table[parsePart(tokens[1])][parsePart(tokens[2])] = status;
+            return;
+        }
+        if (status == MyanmarParser.PAIR_CONTEXT)
+            throw new IllegalArgumentException("CONTEXT is only for table");
+        if (n != 7 && n != 8)
+            throw new IllegalArgumentException("Expected 4 patterns");
+        int [] patterns = new int[4];
+        for (int i = 0; i < patterns.length; i++)
+        {
+            patterns[i] = parsePattern(tokens[i + 1]);
+        }
+        int language = (n == 8)? parseName(tokens[5], LANG_NAMES, "language")
+                               : ANY;
+        Rule rule = new Rule(patterns, language, status);
+        if (tokens[0].equals("override"))
+            overrides.add(rule);
+        else if (tokens[0].equals("context"))
+            contexts.add(rule);
+        else
+            throw new IllegalArgumentException("Unknown rule " + tokens[0]);
+    }
+
+    private static int parsePattern(String token)
+    {
+        if (token.equals("*")) return ANY;
+        if (token.startsWith("U+"))
+        {
+            try
+            {
+                int c = Integer.parseInt(token.substring(2), 16);
+                if (c >= 0 && c <= 0xFFFF) return CHAR_PATTERN | c;
+            }
+            catch (NumberFormatException e)
+            {
+                // reported below
+            }
+            throw new IllegalArgumentException("Invalid character " + token);
+        }
+        return parsePart(token);
+    }
+
+    private static int parsePart(String token)
+    {
+        try
+        {
+            int part = MySyllablePart.valueOf(PART_PREFIX + token).ordinal();
+            if (part < NUM_PARTS) return part;
+        }
+        catch (IllegalArgumentException e)
+        {
+            // reported below
+        }
+        throw new IllegalArgumentException("Unknown class " + token);
+    }
+
+    private static int parseName(String token, String [] names, String type)
+    {
+        for (int i = 0; i < names.length; i++)
+        {
+            if (names[i].equals(token)) return i;
+        }
+        throw new IllegalArgumentException("Unknown " + type + " " + token);
+    }
+
+    /**
+     * @param c
+     * @return the symbol of c used by the automata
+     */
+    int symbol(char c)
+    {
+        return mSymbols[c];
+    }
+
+    /**
+     * @return symbol of each character
+     */
+    byte [] getSymbols()
+    {
+        return mSymbols;
+    }
+
+    /**
+     * @return number of symbols in the alphabet of the automata
+     */
+    int getSymbolCount()
+    {
+        return mSymbolChars.length;
+    }
+
+    /**
+     * @param langHint LANG_* value
+     * @return the automaton for the language
+     */
+    BreakAutomaton getAutomaton(int langHint)
+    {
+        return mAutomata[(langHint >= 0 && langHint < OTHER_LANGUAGE)?
+                         langHint : OTHER_LANGUAGE];
+    }
+
+    /**
+     * Evaluates the rules for every combination of a pair of symbols and 
+     * the 2 symbols after it, this is only used to compile the automata.
+     * The rules which match a symbol at each position are kept as bits, so
+     * the first rule matching a combination is found without testing the
+     * rules one by one.
+     * @param examples symbols to try at each of the 4 positions
+     * @param language LANG_* value or -1 to match no language rules
+     * @return PAIR_* status of each combination, the index is 
+     * ((i0 * m1 + i1) * m2 + i2) * m3 + i3 where i is the index in examples 
+     * and m the number of examples at a position
+     */
+    int [] evaluate(int [][] examples, int language)
+    {
+        List<Rule> rules = new ArrayList<Rule>(mOverrides);
+        rules.addAll(mContexts);
+        // a last rule which always matches gives the default status
+        int last = rules.size();
+        int words = (last >>> 6) + 1;
+        long [][][] masks = new long[examples.length][][];
+        for (int i = 0; i < examples.length; i++)
+        {
+            masks[i] = new long[examples[i].length][words];
+            for (int j = 0; j < examples[i].length; j++)
+            {
+                masks[i][j][last >>> 6] = 1L << last;
+                for (int r = 0; r < last; r++)
+                {
+                    Rule rule = rules.get(r);
+                    if (rule.mLanguage != ANY && rule.mLanguage != language)
+                        continue;
+                    if (matches(rule.mPatterns[i], examples[i][j]))
+                        masks[i][j][r >>> 6] |= 1L << r;
+                }
+            }
+        }
+        int [] statuses = new int[last + 1];
+        for (int r = 0; r < last; r++)
+        {
+            statuses[r] = rules.get(r).mStatus;
+        }
+        statuses[last] = MyanmarParser.PAIR_SYL_BREAK;
+        int [] outputs = new int[examples[0].length * examples[1].length *
+                                 examples[2].length * examples[3].length];
+        long [] pair = new long[words];
+        long [] triple = new long[words];
+        int t = 0;
+        for (int i0 = 0; i0 < examples[0].length; i0++)
+        {
+            for (int i1 = 0; i1 < examples[1].length; i1++)
+            {
+                int table = mTable[mSymbolParts[examples[0][i0]]]
+                                  [mSymbolParts[examples[1][i1]]];
+                for (int w = 0; w < words; w++)
+                {
+                    pair[w] = masks[0][i0][w] & masks[1][i1][w];
+                }
+                for (int i2 = 0; i2 < examples[2].length; i2++)
+                {
+                    for (int w = 0; w < words; w++)
+                    {
+                        triple[w] = pair[w] & masks[2][i2][w];
+                    }
+                    for (int i3 = 0; i3 < examples[3].length; i3++)
+                    {
+                        long [] mask = masks[3][i3];
+                        int w = 0;
+                        // the default rule always matches in the last word
+                        while ((triple[w] & mask[w]) == 0) w++;
+                        int r = (w << 6) + 
+                            Long.numberOfTrailingZeros(triple[w] & mask[w]);
+                        if (r >= mOverrides.size() && 
+                            table != MyanmarParser.PAIR_CONTEXT)
+                            outputs[t++] = table;
+                        else
+                            outputs[t++] = statuses[r];
+                    }
+                }
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Numbers the symbols by the rules which match them at a position, so
+     * all symbols with the same number give the same statuses there. This
+     * is only used to compile the automata.
+     * @param position index of the character in the rule patterns, 0 to 3
+     * @param language LANG_* value or -1 to match no language rules
+     * @param numbers receives the number of each symbol
+     * @return count of different numbers
+     */
+    int classify(int position, int language, int [] numbers)
+    {
+        List<Rule> rules = new ArrayList<Rule>(mOverrides);
+        rules.addAll(mContexts);
+        HashMap<BitSet, Integer> keys = new HashMap<BitSet, Integer>();
+        for (int s = 0; s < numbers.length; s++)
+        {
+            BitSet key = new BitSet();
+            int bit = 0;
+            for (Rule rule : rules)
+            {
+                if (rule.mLanguage != ANY && rule.mLanguage != language)
+                    continue;
+                if (matches(rule.mPatterns[position], s)) key.set(bit);
+                bit++;
+            }
+            // the table is indexed by the classes of the pair
+            if (position < 2) key.set(bit + mSymbolParts[s]);
+            Integer number = keys.get(key);
+            if (number == null)
+            {
+                number = keys.size();
+                keys.put(key, number);
+            }
+            numbers[s] = number;
+        }
+        return keys.size();
+    }
+
+    private boolean matches(int pattern, int symbol)
+    {
+        if (pattern == ANY) return true;
+        if ((pattern & CHAR_PATTERN) != 0)
+            return mSymbolChars[symbol] == (pattern & 0xFFFF);
+        return mSymbolParts[symbol] == pattern;
+    }
+
+    /**
+     * Finds the break status of a pair using the compiled rules.
+     * @param c0 first character of the pair
+     * @param c1 second character of the pair
+     * @param c2 character after the pair
+     * @param c3 second character after the pair
+     * @param langHint LANG_* value e.g. from guessLanguage
+     * @return PAIR_* break status between c0 and c1
+     */
+    public int getStatus(char c0, char c1, char c2, char c3, int langHint)
+    {
+        return getAutomaton(langHint).getStatus(symbol(c0), symbol(c1),
+                                                symbol(c2), symbol(c3));
+    }
+}
@@ -34,9 +34,6 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -60,6 +57,7 @@ public class BurmeseValidator
 		UVowel(9), LVowel(10), AVowel(11), Anusvara(12), 
 		VisibleVirama(13), LowerDot(14), Visarga(15);
 
+        private static final UTN11B [] VALUES = values();
         int mSequenceId;
 
         UTN11B(int seq)
@@ -69,64 +67,12 @@ public class BurmeseValidator
 
         static UTN11B fromCode(char c)
         {
-            // deal with the ranges
-            if (c >= 0x1000 && c < 0x1023)
-                return Consonant;
-			if (c >= 0x1040 && c < 0x104A)
-                return Number;
-            switch (c)
-            {
-            case 0x103F:
-            case 0x25CC:// special case for dotted circle
-                return Consonant;
-            case 0x1022:
-            case 0x1023:
-            case 0x1024:
-            case 0x1025:
-            case 0x1026:
-            case 0x1027:
-            case 0x1028:
-            case 0x1029:
-            case 0x102A:
-            case 0x104A:
-            case 0x104B:
-            case 0x104C:
-            case 0x104D:
-            case 0x104E:
-            case 0x104F:
-                return Sign;
-            case 0x103A:
-                return Asat;
-            case 0x1039:
-                return Stacker;
-            case 0x103B:
-            case 0x103C:
-                return MedialYR;
-            case 0x103D:
-                return MedialW;
-            case 0x103E:
-                return MedialH;
-            case 0x1031:
-                return EVowel;
-            case 0x102D:
-            case 0x102E:
-            case 0x1032:
-                return UVowel;
-            case 0x102F:
-            case 0x1030:
-                return LVowel;
-            case 0x102B:
-            case 0x102C:
-                return AVowel;
-            case 0x1036:
-                return Anusvara;
-            case 0x1037:
-                return LowerDot;
-            case 0x1038:
-                return Visarga;
+            return VALUES[CharProperties.getUtn11B(c)];
+        }
 
-            }
-            return Unknown;
+        static UTN11B fromProperties(int properties)
+        {
+            return VALUES[CharProperties.utn11B(properties)];
         }
 
         public int getSequenceId()
@@ -140,13 +86,13 @@ public class BurmeseValidator
     private long mTabWidth = 4;
 	private String mRef;
     private static final String sEOL = System.getProperty("line.separator");
+    private final ValidationReporter mReporter = new ValidationReporter(ValidationReporter.NONE);
 
     /**
      * constructor
      */
     public BurmeseValidator()
     {
-        sLogger.setLevel(Level.ALL);
     }
     /**
      * tab width
@@ -189,19 +135,29 @@ public class BurmeseValidator
 		mRef = ref;
 	}
 	
-	protected void logFine(String msg, Deque<Character> utn11Queue)
-	{
-	    sLogger.fine(msg + " " + 
-                mRef + " Ln " + mLine + " Col " + 
-                (mColumn - utn11Queue.size()) + "," +
-                mColumn + " " + dumpQueue(utn11Queue));
-	}
-	protected void logWarning(String msg, Deque<Character> utn11Queue)
+    /**
+     * Adds a listener for the problems found during validation, e.g. a
+     * LoggingValidationListener
+     * @param listener
+     */
+    public void addValidationListener(ValidationListener listener)
+    {
+        mReporter.addListener(listener);
+    }
+
+    /**
+     * Removes a listener added with addValidationListener
+     * @param listener
+     */
+    public void removeValidationListener(ValidationListener listener)
+    {
+        mReporter.removeListener(listener);
+    }
+
+    private void report(ValidationRule rule, Utn11Queue utn11Queue)
     {
-        sLogger.warning(msg + " " + 
-                mRef + " Ln " + mLine + " Col " + 
-                (mColumn - utn11Queue.size()) + "," +
-                mColumn + " " + dumpQueue(utn11Queue));
+        if (mReporter.isActive())
+            mReporter.report(rule, mRef, mLine, mColumn, utn11Queue, true);
     }
 
 	/**
@@ -211,10 +167,12 @@ public class BurmeseValidator
 	 */
 	public Status validate(BufferedReader r, BufferedWriter w)
     {
-        Deque<Character> utn11Queue = new ArrayDeque<Character>(UTN11B.Visarga
+        Utn11Queue utn11Queue = new Utn11Queue(UTN11B.Visarga
                 .getSequenceId());
         Status valid = Status.Valid;
 		boolean badPrefix = false;
+        boolean reporting = mReporter.isActive();
+        mReporter.clear();
         try
         {
             do
@@ -224,31 +182,35 @@ public class BurmeseValidator
                     int utf32 = r.read();
                     if (utf32 < 0)
                         break; // end
-                    char[] utf16 = Character.toChars(utf32);
-                    if (utf16[0] == (char) '\t')
+                    char utf16 = (char)utf32;
+                    if (utf16 == (char) '\t')
                     {
                         mColumn += mTabWidth;
                         long overshoot = mColumn % mTabWidth;
                         mColumn -= overshoot;
                     }
                     else
-                        mColumn += utf16.length;
+                        mColumn++;
 					// surrogate pairs can't be Myanmar
-                    if (utf16.length > 1)
+                    if (Character.isSurrogate(utf16))
                     {
+                        if (reporting) mReporter.read((char) 0, mColumn);
                         valid = writeQueue(utn11Queue, w, valid);
                         w.write(utf16);
                     }
                     else
                     {
                         // approx count lines
-                        if (utf16[0] == sEOL.charAt(sEOL.length() - 1))
+                        if (utf16 == sEOL.charAt(sEOL.length() - 1))
                         {
                             mLine++;
                             mColumn = 0;
                         }
 
-                        UTN11B seq = UTN11B.fromCode(utf16[0]);
+                        UTN11B seq = UTN11B.fromCode(utf16);
+                        if (reporting) 
+                            mReporter.read((seq == UTN11B.Unknown)? 0 : utf16,
+                                           mColumn);
                         if (seq == UTN11B.Unknown)// not Myanmar
                         {
                             valid = writeQueue(utn11Queue, w, valid);
@@ -259,71 +221,71 @@ public class BurmeseValidator
                         // this will only occur for consonants
                         if (utn11Queue.size() == 0)
                         {
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
 							if (seq.getSequenceId() > UTN11B.Consonant.getSequenceId())
 							{
-								if (utf16[0] == '\u1031' || utf16[0] == '\u103C')
+								if (utf16 == '\u1031' || utf16 == '\u103C')
 									badPrefix = true;
 								else
 								{
-									logWarning("Unexpected sequence at: ", utn11Queue);
+									report(ValidationRule.UNEXPECTED_SEQUENCE, utn11Queue);
 									if (valid == Status.Valid)
 		                                valid = Status.Invalid;
 								}
 							}
                             continue;
                         }
-                        UTN11B prevSeq = UTN11B.fromCode(utn11Queue.peek());
+                        UTN11B prevSeq = UTN11B.fromProperties(utn11Queue.peekProperties());
 						if (prevSeq == UTN11B.Number)
 						{
 							if (seq == UTN11B.Number)
 							{
 								valid = writeQueue(utn11Queue, w, valid);
-								utn11Queue.push(utf16[0]);
+								utn11Queue.push(utf16);
 								continue;
 							}
 							// This isn't 100% reliable, there could be 
 							// legitimate cases
 							if (utn11Queue.peek() == '\u1040')
 							{
-								logFine("Corrected wa at: ", utn11Queue);
 								utn11Queue.pop();// remove 0 replace with wa
 								utn11Queue.push('\u101D');
+								report(ValidationRule.ZERO_WA, utn11Queue);
 								if (valid == Status.Valid)
 	                                valid = Status.Corrected;
 							}
-							if (utn11Queue.peek() == '\u1044' && utf16[0] == '\u1004')
+							if (utn11Queue.peek() == '\u1044' && utf16 == '\u1004')
 							{
-							    utn11Queue.push(utf16[0]);
+							    utn11Queue.push(utf16);
                                 continue;
 							}
 							if (seq == UTN11B.Consonant)
 	                        {
 	                            valid = writeQueue(utn11Queue, w, valid);
-	                            utn11Queue.push(utf16[0]);
+	                            utn11Queue.push(utf16);
 	                            continue;
 	                        }
-							utn11Queue.push(utf16[0]);
+							utn11Queue.push(utf16);
 							continue;
 						}
 						if (utn11Queue.peek() == '\u1025')
 						{
-						    if (utf16[0] == '\u103A' || utf16[0] == '\u1039' || utf16[0] == '\u102C')
+						    if (utf16 == '\u103A' || utf16 == '\u1039' || utf16 == '\u102C')
                             {
                                 // should be 1009
                                 utn11Queue.pop();
                                 utn11Queue.push('\u1009');
-                                utn11Queue.push(utf16[0]);
+                                utn11Queue.push(utf16);
                                 if (valid == Status.Valid)
                                     valid = Status.Corrected;
-                                logFine("Corrected U+1025 at: ", utn11Queue);
+                                report(ValidationRule.U1025_NYA, utn11Queue);
                                 continue;
                             }
-                            if (utf16[0] == '\u102E')
+                            if (utf16 == '\u102E')
                             {
                                 utn11Queue.pop();
                                 utn11Queue.push('\u1026');
-                                logFine("U+1025 U+102E -> U+1026 ", utn11Queue);
+                                report(ValidationRule.U1025_U102E, utn11Queue);
                                 if (valid == Status.Valid)
                                     valid = Status.Corrected;
                                 continue;
@@ -335,18 +297,18 @@ public class BurmeseValidator
                         {
                             if (prevSeq == UTN11B.LVowel)
                             {
-                                Character lv = utn11Queue.pop();
-                                utn11Queue.push(utf16[0]);
+                                char lv = utn11Queue.pop();
+                                utn11Queue.push(utf16);
                                 utn11Queue.push(lv);
                                 if (valid == Status.Valid)
                                     valid = Status.Corrected;
-                                logFine("Corrected U+102F U+103A: ", utn11Queue);
+                                report(ValidationRule.LOWER_VOWEL_ASAT, utn11Queue);
                                 continue;
                             }
                             if (prevSeq == UTN11B.Asat)
                             {
                                 // duplicate asat
-                                logFine("Corrected duplicate U+103A", utn11Queue);
+                                report(ValidationRule.DUPLICATE_ASAT, utn11Queue);
                                 if (valid == Status.Valid)
                                     valid = Status.Corrected;
                                 continue;
@@ -357,13 +319,13 @@ public class BurmeseValidator
                         // structure?
                         if (prevSeq.getSequenceId() < seq.getSequenceId())
                         {
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             continue;
                         }
                         if (seq == UTN11B.Sign)
                         {
                             valid = writeQueue(utn11Queue, w, valid);
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             continue;
                         }
                         // it should be a consonant starting a new syllable
@@ -371,7 +333,7 @@ public class BurmeseValidator
                         {
 							if (prevSeq == UTN11B.Stacker)
 							{
-	                            utn11Queue.push(utf16[0]);
+	                            utn11Queue.push(utf16);
 							}
 							else
 							{
@@ -380,38 +342,37 @@ public class BurmeseValidator
 								    if ((prevSeq == UTN11B.MedialYR || 
                                     prevSeq == UTN11B.EVowel))
 								    {
-    								    utn11Queue.addLast(utf16[0]);
+    								    utn11Queue.addLast(utf16);
     								    if (valid == Status.Valid)
     		                                valid = Status.Corrected;
-    								    logFine("Corrected prefix sequence at: ", 
-    								            utn11Queue);
+    								    report(ValidationRule.PREFIX_ORDER, utn11Queue);
     									badPrefix = false;
     									continue;
 								    }
 								    else
 								    {
-								        logWarning("Bad prefix at: ", utn11Queue);
+								        report(ValidationRule.BAD_PREFIX, utn11Queue);
 								    }
 								}
 								valid = writeQueue(utn11Queue, w, valid);
-	                            utn11Queue.push(utf16[0]);
+	                            utn11Queue.push(utf16);
 							}
 							badPrefix = false;
                             continue;
                         }
                         // E vowel, zero
-                        if (utf16[0] == '\u1040' && badPrefix &&
+                        if (utf16 == '\u1040' && badPrefix &&
                             (prevSeq == UTN11B.EVowel || prevSeq == UTN11B.MedialYR ))
                         {
                             if (valid == Status.Valid)
                                 valid = Status.Corrected;
                             utn11Queue.addLast('\u101D');
-                            logFine("Changed 0 to wa: ", utn11Queue);
+                            report(ValidationRule.PREFIX_ZERO_WA, utn11Queue);
                             badPrefix = false;
                             continue;
                         }
                         // something has probably gone wrong
-						//if (utf16[0] == '\u1040')
+						//if (utf16 == '\u1040')
 						if (seq == UTN11B.Number)
 						{
 							//sLogger.fine("Corrected wa at: " + 
@@ -420,16 +381,16 @@ public class BurmeseValidator
 							//	mColumn + " " + dumpQueue(utn11Queue));
 							valid = writeQueue(utn11Queue, w, valid);
 							//utn11Queue.push('\u101D');
-							utn11Queue.push(utf16[0]);
+							utn11Queue.push(utf16);
 							continue;
 						}
 						if (badPrefix && (prevSeq == UTN11B.EVowel) && 
 						    (seq == UTN11B.MedialYR))
 						{
 						    char eVowel = utn11Queue.pop();
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             utn11Queue.push(eVowel);
-                            logFine("Corrected e/medial ra: ", utn11Queue);
+                            report(ValidationRule.E_MEDIAL_RA_ORDER, utn11Queue);
                             continue;
 						}
 						if ((utn11Queue.size() > 1) && (prevSeq == UTN11B.EVowel) && 
@@ -437,14 +398,14 @@ public class BurmeseValidator
 	                         (seq == UTN11B.MedialH)))
 						{
 						    char eVowel = utn11Queue.pop();
-						    UTN11B beforeE = UTN11B.fromCode(utn11Queue.peek());
+						    UTN11B beforeE = UTN11B.fromProperties(utn11Queue.peekProperties());
 						    if (beforeE.getSequenceId() < seq.getSequenceId())
 						    {
-						        utn11Queue.push(utf16[0]);
+						        utn11Queue.push(utf16);
 	                            utn11Queue.push(eVowel);
 	                            if (valid == Status.Valid)
 	                                valid = Status.Corrected;
-	                            logFine("Corrected e/medial: ",utn11Queue);
+	                            report(ValidationRule.E_MEDIAL_ORDER, utn11Queue);
 	                            continue;
 						    }
 						    else // badly wrong, give up trying to correct
@@ -457,16 +418,15 @@ public class BurmeseValidator
                         if (prevSeq == UTN11B.LVowel && seq == UTN11B.UVowel)
                         {
                             char lv = utn11Queue.pop();
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             utn11Queue.push(lv);
                             if (valid == Status.Valid)
                                 valid = Status.Corrected;
-                            logFine("Corrected at lower/upper vowel order: ", 
-                                    utn11Queue);
+                            report(ValidationRule.LOWER_UPPER_VOWEL_ORDER, utn11Queue);
                             continue;
                         }
-                        utn11Queue.push(utf16[0]);
-                        logWarning("Invalid sequence at: ", utn11Queue);
+                        utn11Queue.push(utf16);
+                        report(ValidationRule.INVALID_SEQUENCE, utn11Queue);
                         valid = Status.Invalid;
                     }
                 }
@@ -475,6 +435,7 @@ public class BurmeseValidator
                     break;
                 }
             } while (true);
+            if (reporting) mReporter.read((char) 0, mColumn);
             if (utn11Queue.size() > 0) valid = writeQueue(utn11Queue, w, valid);
         }
         catch (IOException e)
@@ -488,31 +449,29 @@ public class BurmeseValidator
         return valid;
     }
 
-    private Status writeQueue(Deque<Character> utn11Queue, BufferedWriter w,
+    private Status writeQueue(Utn11Queue utn11Queue, BufferedWriter w,
             Status status) throws IOException
     {
         if (utn11Queue.size() > 0 && utn11Queue.peek() == 0x1039)
         {
             // stray 1039, should probably be 103A
             utn11Queue.pop();
-            utn11Queue.push(Character.valueOf((char) 0x103A));
-            sLogger.fine("Corrected 0x1039 at: Ln " + mLine + " Col "
-                    + (mColumn - utn11Queue.size()) + "," + mColumn + " "
-                    + dumpQueue(utn11Queue));
+            utn11Queue.push((char) 0x103A);
+            reportWritten(ValidationRule.STRAY_VIRAMA, utn11Queue);
             if (status == Status.Valid)
                 status = Status.Corrected;
         }
         // correct ၄င်း
         if (utn11Queue.size() == 4 && utn11Queue.peekLast() == '\u1044' && 
-            utn11Queue.peekFirst() == '\u1038')
+            utn11Queue.peek() == '\u1038')
         {
-            Character c = utn11Queue.removeLast();
+            char c = utn11Queue.removeLast();
             if (utn11Queue.peekLast() == '\u1004')
             {
-                w.write('\u104E');
+                utn11Queue.addLast('\u104E');
                 if (status == Status.Valid)
                     status = Status.Corrected;
-                logFine("Corrected ၄င်း", utn11Queue);
+                reportWritten(ValidationRule.DIGIT_FOUR, utn11Queue);
             }
             else w.write(c);
         }
@@ -521,26 +480,18 @@ public class BurmeseValidator
         {
             w.write(utn11Queue.removeLast());
         }
+        mReporter.written();
         return status;
     }
 
-    private final String dumpQueue(Deque<Character> utn11Queue)
+    /**
+     * Reports a problem in a syllable as it is written, which does not 
+     * include the character being validated.
+     */
+    private void reportWritten(ValidationRule rule, Utn11Queue utn11Queue)
     {
-        StringBuilder sb1 = new StringBuilder();
-        StringBuilder sb2 = new StringBuilder();
-        Iterator<Character> i = utn11Queue.iterator();
-        while (i.hasNext())
-        {
-            char c = i.next();
-            // iterating backwards from right to left
-            if (sb2.length() > 0)
-                sb2.insert(0, " ");
-            sb2.insert(0, Integer.toHexString(c));
-            sb2.insert(0, "0x");
-            sb1.insert(0, c);
-        }
-        sb2.append(" [").append(sb1).append("]");
-        return sb2.toString();
+        if (mReporter.isActive())
+            mReporter.report(rule, mRef, mLine, mColumn, utn11Queue, false);
     }
 
     /**
@@ -597,6 +548,8 @@ public class BurmeseValidator
                 if (System.getProperty("os.name").equals("Linux"))
                     validator.setTabWidth(8);
 				validator.setRef(inputFile.getName());
+                validator.addValidationListener(
+                    new LoggingValidationListener(sLogger));
                 Status status = validator.validate(br, bw);
                 if (status != Status.Valid)
                     sLogger.info(arg[i] + " Validation state: " + status);
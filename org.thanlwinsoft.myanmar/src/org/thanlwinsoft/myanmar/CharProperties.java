@@ -0,0 +1,309 @@
+/*
+ * Title: CharProperties
+ * Description: Two stage lookup table of Myanmar character properties
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.util.Arrays;
+
+import org.thanlwinsoft.myanmar.BurmeseValidator.UTN11B;
+import org.thanlwinsoft.myanmar.MyanmarParser.MySyllablePart;
+import org.thanlwinsoft.myanmar.MyanmarValidator.UTN11;
+
+/**
+ * Properties of every UTF-16 code unit, which are shared by the parser and
+ * the validators. The properties of a character are packed into one int:
+ * <pre>
+ * bits 0-3   MySyllablePart ordinal
+ * bits 4-8   UTN11 ordinal
+ * bits 9-13  UTN11B ordinal
+ * bits 14-15 language indicator, LANG_* or LANG_AFTER_TONE
+ * </pre>
+ * The values are stored in a two stage table in the style of ICU's UTrie2.
+ * The first stage is indexed by the top bits of the character and gives 
+ * the start of a block of 32 values in the second stage. Blocks with the 
+ * same values, such as all those outside the Myanmar ranges, are stored
+ * once, so the tables are small and a lookup is two array reads without
+ * any branches. The tables are built once when the class is loaded from 
+ * the range data below.
+ */
+final class CharProperties
+{
+    private static final int PART_MASK = 0xF;
+    private static final int UTN11_SHIFT = 4;
+    private static final int UTN11_MASK = 0x1F;
+    private static final int UTN11B_SHIFT = 9;
+    private static final int UTN11B_MASK = 0x1F;
+    private static final int LANG_SHIFT = 14;
+    private static final int LANG_MASK = 0x3;
+    /** language indicator of U+102C, which is Karen after U+1036 or U+1037 */
+    static final int LANG_AFTER_TONE = 3;
+    private static final int BLOCK_SHIFT = 5;
+    private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+
+    /** first stage, start of the block in DATA for each block of chars */
+    private static final char [] INDEX = new char[0x10000 >> BLOCK_SHIFT];
+    /** second stage, the packed properties */
+    private static final int [] DATA;
+
+    /**
+     * UTN11 classes as first, last character and class, later rows 
+     * override earlier ones
+     */
+    private static final Object [][] UTN11_RANGES = new Object [][]
+    {
+        { 0x1000, 0x102A, UTN11.Consonant },
+        { 0x105A, 0x105D, UTN11.Consonant },
+        { 0x106E, 0x1070, UTN11.Consonant },
+        { 0x1075, 0x1081, UTN11.Consonant },
+        { 0xAA60, 0xAA6F, UTN11.Consonant },
+        { 0xAA71, 0xAA76, UTN11.Consonant },
+        { 0x1040, 0x1049, UTN11.Number },
+        { 0x1090, 0x1099, UTN11.Number },
+        { 0x103F, 0x103F, UTN11.Consonant },
+        { 0x104E, 0x104E, UTN11.Consonant },
+        { 0x1061, 0x1061, UTN11.Consonant },
+        { 0x1065, 0x1066, UTN11.Consonant },
+        { 0x108E, 0x108E, UTN11.Consonant },
+        { 0x25CC, 0x25CC, UTN11.Consonant },// dotted circle
+        { 0x104A, 0x104D, UTN11.Sign },
+        { 0x104F, 0x104F, UTN11.Sign },
+        { 0x109E, 0x109F, UTN11.Sign },
+        { 0x103A, 0x103A, UTN11.Asat },// May also be Mon Asat or Visible Virama
+        { 0x1039, 0x1039, UTN11.Stacker },
+        { 0x103B, 0x103C, UTN11.MedialYR },
+        { 0x105E, 0x105F, UTN11.MedialYR },
+        { 0x103D, 0x103D, UTN11.MedialW },
+        { 0x1082, 0x1082, UTN11.MedialW },
+        { 0x103E, 0x103E, UTN11.MedialH },// or MonH
+        { 0x1060, 0x1060, UTN11.MedialH },
+        { 0x1031, 0x1031, UTN11.EVowel },// or Shan E Vowel
+        { 0x1084, 0x1084, UTN11.EVowel },
+        { 0x102D, 0x102E, UTN11.UVowel },
+        { 0x1032, 0x1036, UTN11.UVowel },// may also be Anusvara for 1036,1032
+        { 0x1071, 0x1074, UTN11.UVowel },
+        { 0x1085, 0x1085, UTN11.UVowel },
+        { 0x109D, 0x109D, UTN11.UVowel },
+        { 0x102F, 0x1030, UTN11.LVowel },
+        { 0x1037, 0x1037, UTN11.KarenVowel },// or lower dot
+        { 0x1062, 0x1062, UTN11.KarenVowel },
+        { 0x1086, 0x1086, UTN11.ShanVowel },
+        { 0x102B, 0x102C, UTN11.AVowel },
+        { 0x1063, 0x1063, UTN11.AVowel },
+        { 0x1067, 0x1068, UTN11.AVowel },
+        { 0x1083, 0x1083, UTN11.AVowel },
+        { 0x1064, 0x1064, UTN11.PwoTone },// actually Sgaw
+        { 0x1069, 0x106D, UTN11.PwoTone },
+        { 0x1038, 0x1038, UTN11.Visarga },
+        { 0x1087, 0x108D, UTN11.Visarga },
+        { 0x108F, 0x108F, UTN11.Visarga },
+        { 0x109A, 0x109C, UTN11.Visarga },
+        { 0xAA70, 0xAA70, UTN11.Reduplicator },
+        // Myanmar Extended-B
+        { 0xA9E0, 0xA9E4, UTN11.Consonant },// Shan
+        { 0xA9E5, 0xA9E5, UTN11.Visarga },// Shan Saw
+        { 0xA9E6, 0xA9E6, UTN11.Reduplicator },
+        { 0xA9E7, 0xA9EF, UTN11.Consonant },// Tai Laing
+        { 0xA9F0, 0xA9F9, UTN11.Number },
+        { 0xA9FA, 0xA9FE, UTN11.Consonant }
+    };
+
+    /**
+     * UTN11B classes as first, last character and class, later rows 
+     * override earlier ones
+     */
+    private static final Object [][] UTN11B_RANGES = new Object [][]
+    {
+        { 0x1023, 0x102A, UTN11B.Sign },
+        { 0x104A, 0x104F, UTN11B.Sign },
+        { 0x1000, 0x1022, UTN11B.Consonant },
+        { 0x103F, 0x103F, UTN11B.Consonant },
+        { 0x25CC, 0x25CC, UTN11B.Consonant },// dotted circle
+        { 0x1040, 0x1049, UTN11B.Number },
+        { 0x103A, 0x103A, UTN11B.Asat },
+        { 0x1039, 0x1039, UTN11B.Stacker },
+        { 0x103B, 0x103C, UTN11B.MedialYR },
+        { 0x103D, 0x103D, UTN11B.MedialW },
+        { 0x103E, 0x103E, UTN11B.MedialH },
+        { 0x1031, 0x1031, UTN11B.EVowel },
+        { 0x102D, 0x102E, UTN11B.UVowel },
+        { 0x1032, 0x1032, UTN11B.UVowel },
+        { 0x102F, 0x1030, UTN11B.LVowel },
+        { 0x102B, 0x102C, UTN11B.AVowel },
+        { 0x1036, 0x1036, UTN11B.Anusvara },
+        { 0x1037, 0x1037, UTN11B.LowerDot },
+        { 0x1038, 0x1038, UTN11B.Visarga }
+    };
+
+    /**
+     * syllable parts of U+AA60-U+AA7F and Myanmar Extended-B, U+1000-U+109F
+     * are in MyanmarParser.CHAR_PART
+     */
+    private static final Object [][] PART_RANGES = new Object [][]
+    {
+        { 0xAA60, 0xAA7B, MySyllablePart.MY_SYLLABLE_CONSONANT },
+        { 0xAA70, 0xAA70, MySyllablePart.MY_SYLLABLE_TONE },
+        { 0xAA7B, 0xAA7B, MySyllablePart.MY_SYLLABLE_TONE },
+        { 0xA9E0, 0xA9E4, MySyllablePart.MY_SYLLABLE_CONSONANT },
+        { 0xA9E5, 0xA9E6, MySyllablePart.MY_SYLLABLE_TONE },
+        { 0xA9E7, 0xA9EF, MySyllablePart.MY_SYLLABLE_CONSONANT },
+        { 0xA9F0, 0xA9F9, MySyllablePart.MY_SYLLABLE_NUMBER },
+        { 0xA9FA, 0xA9FE, MySyllablePart.MY_SYLLABLE_CONSONANT }
+    };
+
+    /**
+     * language indicators as first, last character and LANG_* value
+     */
+    private static final int [][] LANG_RANGES = new int [][]
+    {
+        { 0x1060, 0x1064, MyanmarParser.LANG_KSW },
+        { 0x1065, 0x106D, MyanmarParser.LANG_PWO },
+        { 0x102C, 0x102C, LANG_AFTER_TONE }
+    };
+
+    static
+    {
+        int [] values = new int[0x10000];
+        MySyllablePart [] parts = MyanmarParser.CHAR_PART;
+        for (int i = 0; i < parts.length; i++)
+            values[0x1000 + i] = parts[i].ordinal();
+        for (Object [] range : PART_RANGES)
+            set(values, range, 0, PART_MASK);
+        for (Object [] range : UTN11_RANGES)
+            set(values, range, UTN11_SHIFT, UTN11_MASK);
+        for (Object [] range : UTN11B_RANGES)
+            set(values, range, UTN11B_SHIFT, UTN11B_MASK);
+        for (int [] range : LANG_RANGES)
+        {
+            for (int c = range[0]; c <= range[1]; c++)
+                values[c] |= range[2] << LANG_SHIFT;
+        }
+        // store each distinct block once
+        int blockLength = BLOCK_MASK + 1;
+        int [] data = new int[blockLength];
+        int dataLength = blockLength; // block 0 is all zero
+        for (int block = 0; block < INDEX.length; block++)
+        {
+            int [] blockValues = Arrays.copyOfRange(values, 
+                block << BLOCK_SHIFT, (block + 1) << BLOCK_SHIFT);
+            int start = -1;
+            for (int s = 0; s < dataLength && start < 0; s += blockLength)
+            {
+                if (Arrays.equals(blockValues, 
+                                  Arrays.copyOfRange(data, s, s + blockLength)))
+                    start = s;
+            }
+            if (start < 0)
+            {
+                start = dataLength;
+                dataLength += blockLength;
+                data = Arrays.copyOf(data, dataLength);
+                System.arraycopy(blockValues, 0, data, start, blockLength);
+            }
+            INDEX[block] = (char)start;
+        }
+        DATA = data;
+    }
+
+    private static void set(int [] values, Object [] range, int shift, 
+                            int mask)
+    {
+        int ordinal = ((Enum<?>)range[2]).ordinal();
+        for (int c = (Integer)range[0]; c <= (Integer)range[1]; c++)
+            values[c] = (values[c] & ~(mask << shift)) | (ordinal << shift);
+    }
+
+    private CharProperties()
+    {
+    }
+
+    /**
+     * @param c
+     * @return all the packed properties of c
+     */
+    static int get(char c)
+    {
+        return DATA[INDEX[c >> BLOCK_SHIFT] + (c & BLOCK_MASK)];
+    }
+
+    /**
+     * @param c
+     * @return MySyllablePart ordinal of c
+     */
+    static int getSyllablePart(char c)
+    {
+        return get(c) & PART_MASK;
+    }
+
+    /**
+     * @param c
+     * @return UTN11 ordinal of c
+     */
+    static int getUtn11(char c)
+    {
+        return utn11(get(c));
+    }
+
+    /**
+     * @param properties packed properties from get
+     * @return UTN11 ordinal
+     */
+    static int utn11(int properties)
+    {
+        return (properties >> UTN11_SHIFT) & UTN11_MASK;
+    }
+
+    /**
+     * @param c
+     * @return UTN11B ordinal of c
+     */
+    static int getUtn11B(char c)
+    {
+        return utn11B(get(c));
+    }
+
+    /**
+     * @param properties packed properties from get
+     * @return UTN11B ordinal
+     */
+    static int utn11B(int properties)
+    {
+        return (properties >> UTN11B_SHIFT) & UTN11B_MASK;
+    }
+
+    /**
+     * @param c
+     * @return LANG_* value indicated by c alone or LANG_AFTER_TONE
+     */
+    static int getLanguage(char c)
+    {
+        return (get(c) >> LANG_SHIFT) & LANG_MASK;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Title: LineFitter
+ * Description: Fits syllables into lines of a maximum width
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.util.Arrays;
+
+/**
+ * Chooses line breaks from the line break opportunities of a text so that
+ * each line fits a maximum width. The text is parsed once and each 
+ * syllable is measured once with a WidthFunction, so the function may be
+ * slow e.g. a font measurement. Whitespace at the end of a line does not
+ * count towards its width and lines do not start with whitespace.
+ * A piece between opportunities which is wider than the maximum gets a 
+ * line of its own. An instance is not thread safe.
+ */
+public class LineFitter
+{
+    /**
+     * Measures the syllables of a text
+     */
+    public interface WidthFunction
+    {
+        /**
+         * @param text
+         * @param start start index of a syllable
+         * @param end end index of the syllable (exclusive)
+         * @return width of the syllable
+         */
+        double getWidth(CharSequence text, int start, int end);
+    }
+
+    /**
+     * How the lines are chosen
+     */
+    public enum Mode
+    {
+        /** each line holds as much as fits */
+        GREEDY,
+        /**
+         * minimize the sum of the squared space left at the end of each 
+         * line except the last, as in Knuth and Plass
+         */
+        MINIMUM_RAGGEDNESS;
+    }
+
+    /**
+     * Width of a monospace terminal, where each character is one cell 
+     * except for combining marks and the low surrogate of a pair.
+     */
+    public static final WidthFunction MONOSPACE = new WidthFunction()
+    {
+        public double getWidth(CharSequence text, int start, int end)
+        {
+            int cells = 0;
+            for (int i = start; i < end; i++)
+            {
+                char c = text.charAt(i);
+                int type = Character.getType(c);
+                if (type != Character.NON_SPACING_MARK && 
+                    type != Character.ENCLOSING_MARK &&
+                    type != Character.FORMAT &&
+                    !Character.isLowSurrogate(c))
+                    cells++;
+            }
+            return cells;
+        }
+    };
+
+    private final MyanmarParser mParser;
+    private final WidthFunction mWidths;
+    // end, width up to the end and trailing whitespace width of each 
+    // piece between line break opportunities of the last text
+    private int [] mEnds = new int[64];
+    private double [] mSums = new double[64];
+    private double [] mTrailing = new double[64];
+    private int mCount;
+
+    /**
+     * Constructor
+     * @param parser
+     * @param widths measures syllables
+     */
+    public LineFitter(MyanmarParser parser, WidthFunction widths)
+    {
+        mParser = parser;
+        mWidths = widths;
+    }
+
+    /**
+     * Breaks a text into lines.
+     * @param text text to fit
+     * @param maxWidth maximum line width
+     * @param mode how to choose the lines
+     * @return end index of each line, the last is the text length
+     */
+    public int [] fit(CharSequence text, double maxWidth, Mode mode)
+    {
+        measure(text);
+        if (mCount == 0) return new int[0];
+        if (mode == Mode.GREEDY) return fitGreedy(maxWidth);
+        return fitMinimumRaggedness(maxWidth);
+    }
+
+    /**
+     * Finds the break opportunities of a text and the width before each.
+     * Whitespace which ends at an opportunity just after another one is 
+     * joined to the piece before, so the line breaks after the whitespace.
+     */
+    private void measure(CharSequence text)
+    {
+        ParseSession session = mParser.newSession(text);
+        int limit = text.length();
+        mCount = 0;
+        double sum = 0;
+        double trailing = 0;
+        boolean empty = true;
+        int offset = 0;
+        while (offset < limit)
+        {
+            long syllable = session.nextSyllable(offset);
+            int end = MyanmarParser.syllableEnd(syllable);
+            double width = mWidths.getWidth(text, offset, end);
+            boolean space = isWhitespace(text, offset, end);
+            boolean breakAfter = end == limit || MyanmarParser.
+                isLineBreakCode(MyanmarParser.syllableStatus(syllable));
+            sum += width;
+            if (empty && space && breakAfter && mCount > 0)
+            {
+                mEnds[mCount - 1] = end;
+                mSums[mCount - 1] = sum;
+                mTrailing[mCount - 1] += width;
+            }
+            else
+            {
+                trailing = space? trailing + width : 0;
+                empty = false;
+                if (breakAfter)
+                {
+                    add(end, sum, trailing);
+                    trailing = 0;
+                    empty = true;
+                }
+            }
+            offset = end;
+        }
+    }
+
+    private static boolean isWhitespace(CharSequence text, int start, 
+                                        int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            if (!Character.isWhitespace(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private void add(int end, double sum, double trailing)
+    {
+        if (mCount == mEnds.length)
+        {
+            mEnds = Arrays.copyOf(mEnds, mCount * 2);
+            mSums = Arrays.copyOf(mSums, mCount * 2);
+            mTrailing = Arrays.copyOf(mTrailing, mCount * 2);
+        }
+        mEnds[mCount] = end;
+        mSums[mCount] = sum;
+        mTrailing[mCount] = trailing;
+        mCount++;
+    }
+
+    /**
+     * @param first index of the first piece of a line
+     * @param last index of the last piece of the line
+     * @return width of the line without trailing whitespace
+     */
+    private double width(int first, int last)
+    {
+        return mSums[last] - mTrailing[last] - 
+            ((first > 0)? mSums[first - 1] : 0);
+    }
+
+    private int [] fitGreedy(double maxWidth)
+    {
+        int [] lines = new int[mCount];
+        int lineCount = 0;
+        int first = 0;
+        while (first < mCount)
+        {
+            int last = first;
+            while (last + 1 < mCount && width(first, last + 1) <= maxWidth)
+                last++;
+            lines[lineCount++] = mEnds[last];
+            first = last + 1;
+        }
+        return Arrays.copyOf(lines, lineCount);
+    }
+
+    private int [] fitMinimumRaggedness(double maxWidth)
+    {
+        // cost[j] is the least cost of the lines before piece j and 
+        // first[j] the first piece of the last of those lines
+        double [] cost = new double[mCount + 1];
+        int [] first = new int[mCount + 1];
+        for (int j = 0; j < mCount; j++)
+        {
+            cost[j + 1] = Double.POSITIVE_INFINITY;
+            for (int i = j; i >= 0; i--)
+            {
+                double width = width(i, j);
+                if (width > maxWidth && i < j) break;
+                double space = maxWidth - width;
+                // an overlong piece and the last line cost nothing
+                double badness = (space < 0 || j == mCount - 1)? 
+                    0 : space * space;
+                if (cost[i] + badness < cost[j + 1])
+                {
+                    cost[j + 1] = cost[i] + badness;
+                    first[j + 1] = i;
+                }
+            }
+        }
+        int lineCount = 0;
+        for (int j = mCount; j > 0; j = first[j]) lineCount++;
+        int [] lines = new int[lineCount];
+        for (int j = mCount; j > 0; j = first[j])
+        {
+            lines[--lineCount] = mEnds[j - 1];
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Title: LoggingValidationListener
+ * Description: Writes validation events to a java.util.logging Logger
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes validation events to a Logger, corrections at level FINE and 
+ * other problems at level WARNING. Events are only formatted if the logger
+ * would publish them.
+ */
+public class LoggingValidationListener implements ValidationListener
+{
+    private final Logger mLogger;
+
+    /**
+     * Constructor
+     * @param logger receives the events
+     */
+    public LoggingValidationListener(Logger logger)
+    {
+        mLogger = logger;
+    }
+
+    public void validationEvent(ValidationEvent event)
+    {
+        Level level = (event.getRule().getStatus() == 
+            Validator.Status.Corrected)? Level.FINE : Level.WARNING;
+        if (!mLogger.isLoggable(level))
+            return;
+        StringBuilder message = new StringBuilder();
+        message.append(event.getRule().getMessage()).append(' ')
+            .append(event.getRef()).append(" Ln ").append(event.getLine())
+            .append(" Col ").append(event.getColumn()).append(',')
+            .append(event.getEndColumn());
+        String corrected = event.getCorrected();
+        for (int i = 0; i < corrected.length(); i++)
+        {
+            message.append(" 0x")
+                .append(Integer.toHexString(corrected.charAt(i)));
+        }
+        message.append(" [").append(corrected).append("]");
+        mLogger.log(level, message.toString());
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Title: MyanmarBreakIterator
+ * Description: java.text.BreakIterator for Myanmar syllables and line breaks
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.text.BreakIterator;
+import java.text.CharacterIterator;
+import java.text.StringCharacterIterator;
+import java.util.Arrays;
+
+/**
+ * BreakIterator which finds Myanmar syllable or line break boundaries with
+ * a MyanmarParser. Boundaries are found lazily as the iterator moves 
+ * forward and are cached, so random access with following, preceding and
+ * isBoundary only parses each part of the text once.
+ */
+public class MyanmarBreakIterator extends BreakIterator
+{
+    /** iterate over every syllable boundary */
+    public static final int SYLLABLE = 0;
+    /** iterate over boundaries where a line may be broken */
+    public static final int LINE = 1;
+    private static final int INITIAL_CAPACITY = 64;
+    private final MyanmarParser mParser;
+    private final int mGranularity;
+    private CharacterIterator mText;
+    private ParseSession mSession;
+    private int mOffset;
+    private int [] mBounds = new int[INITIAL_CAPACITY];
+    private int mCount;
+    private boolean mComplete;
+    private int mCurrent;
+
+    /**
+     * Constructor
+     * @param parser
+     * @param granularity SYLLABLE or LINE
+     */
+    public MyanmarBreakIterator(MyanmarParser parser, int granularity)
+    {
+        if (granularity != SYLLABLE && granularity != LINE)
+            throw new IllegalArgumentException("Unknown granularity " + 
+                                               granularity);
+        mParser = parser;
+        mGranularity = granularity;
+        setText("");
+    }
+
+    /**
+     * @return iterator over syllable boundaries
+     */
+    public static MyanmarBreakIterator getSyllableInstance()
+    {
+        return new MyanmarBreakIterator(MyanmarParser.getInstance(), SYLLABLE);
+    }
+
+    /**
+     * @return iterator over line break boundaries
+     */
+    public static MyanmarBreakIterator getLineInstance()
+    {
+        return new MyanmarBreakIterator(MyanmarParser.getInstance(), LINE);
+    }
+
+    /**
+     * @return SYLLABLE or LINE
+     */
+    public int getGranularity()
+    {
+        return mGranularity;
+    }
+
+    public CharacterIterator getText()
+    {
+        return mText;
+    }
+
+    /**
+     * Sets a String to scan, this is parsed in place without copying.
+     */
+    public void setText(String text)
+    {
+        mText = new StringCharacterIterator(text);
+        mOffset = 0;
+        reset(mParser.newSession(text));
+    }
+
+    /**
+     * Sets the text to scan, the characters are copied once so that they 
+     * can be parsed in place.
+     */
+    public void setText(CharacterIterator text)
+    {
+        mText = text;
+        mOffset = text.getBeginIndex();
+        char [] chars = new char[text.getEndIndex() - mOffset];
+        int i = 0;
+        for (char c = text.first(); c != CharacterIterator.DONE; 
+             c = text.next())
+            chars[i++] = c;
+        text.first();
+        reset(mParser.newSession(chars, 0, chars.length));
+    }
+
+    private void reset(ParseSession session)
+    {
+        mSession = session;
+        mBounds[0] = mOffset;
+        mCount = 1;
+        mComplete = (session.getLimit() == 0);
+        mCurrent = 0;
+    }
+
+    /**
+     * Finds the next boundary after the last cached one.
+     * @return false if there are no more boundaries
+     */
+    private boolean scan()
+    {
+        if (mComplete) return false;
+        int limit = mSession.getLimit();
+        int i = mBounds[mCount - 1] - mOffset;
+        int status;
+        do
+        {
+            long syllable = mSession.nextSyllable(i);
+            i = MyanmarParser.syllableEnd(syllable);
+            status = MyanmarParser.syllableStatus(syllable);
+        } while (mGranularity == LINE && i < limit && 
+                 !MyanmarParser.isLineBreakCode(status));
+        if (mCount == mBounds.length)
+            mBounds = Arrays.copyOf(mBounds, mCount * 2);
+        mBounds[mCount++] = i + mOffset;
+        mComplete = (i >= limit);
+        return true;
+    }
+
+    /**
+     * Finds the index of the first cached boundary which is greater than 
+     * or equal to offset, scanning further if needed.
+     * @param offset
+     * @return index into the boundary cache
+     */
+    private int indexOf(int offset)
+    {
+        while (mBounds[mCount - 1] < offset && scan());
+        int i = Arrays.binarySearch(mBounds, 0, mCount, offset);
+        return (i < 0)? -i - 1 : i;
+    }
+
+    private void checkOffset(int offset)
+    {
+        if (offset < mOffset || offset > mOffset + mSession.getLimit())
+            throw new IllegalArgumentException("Offset " + offset + 
+                                               " is outside the text");
+    }
+
+    public int current()
+    {
+        return mBounds[mCurrent];
+    }
+
+    public int first()
+    {
+        mCurrent = 0;
+        return mBounds[0];
+    }
+
+    public int last()
+    {
+        while (scan());
+        mCurrent = mCount - 1;
+        return mBounds[mCurrent];
+    }
+
+    public int next()
+    {
+        if (mCurrent + 1 == mCount && !scan())
+            return DONE;
+        return mBounds[++mCurrent];
+    }
+
+    public int next(int n)
+    {
+        int result = current();
+        for (; n > 0 && result != DONE; n--)
+            result = next();
+        for (; n < 0 && result != DONE; n++)
+            result = previous();
+        return result;
+    }
+
+    public int previous()
+    {
+        if (mCurrent == 0) return DONE;
+        return mBounds[--mCurrent];
+    }
+
+    public int following(int offset)
+    {
+        checkOffset(offset);
+        int i = indexOf(offset + 1);
+        if (i == mCount)
+        {
+            mCurrent = mCount - 1;
+            return DONE;
+        }
+        mCurrent = i;
+        return mBounds[i];
+    }
+
+    public int preceding(int offset)
+    {
+        checkOffset(offset);
+        int i = indexOf(offset);
+        if (i == 0)
+        {
+            mCurrent = 0;
+            return DONE;
+        }
+        mCurrent = i - 1;
+        return mBounds[mCurrent];
+    }
+
+    public boolean isBoundary(int offset)
+    {
+        checkOffset(offset);
+        int i = indexOf(offset);
+        mCurrent = i;
+        return mBounds[i] == offset;
+    }
+
+    public Object clone()
+    {
+        MyanmarBreakIterator copy = (MyanmarBreakIterator)super.clone();
+        copy.mBounds = mBounds.clone();
+        copy.mText = (CharacterIterator)mText.clone();
+        return copy;
+    }
+}
@@ -30,13 +30,10 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Vector;
 
 import org.thanlwinsoft.myanmar.MyanmarParser.ClusterProperties;
-import org.thanlwinsoft.myanmar.MyanmarParser.MyPairStatus;
 
 /**
  * Class to break Myanmar text into words separated by spaces or ZWSP
@@ -57,17 +54,18 @@ public class MyanmarBreaker
 	public MyanmarBreaker(char spacer, BufferedReader dictionary) throws IOException
 	{
 		mSpacer = spacer;
-		MyanmarParser mp = new MyanmarParser();
+		MyanmarParser mp = MyanmarParser.getInstance();
 		if (dictionary != null)
 		{
 			String word = dictionary.readLine();
 			while (word != null)
 			{
+				ParseSession session = mp.newSession(word);
 				int offset = 0;
 				int syllableCount = 0;
 				while (offset < word.length())
 				{
-					ClusterProperties cp = mp.getNextLineBreak(word, offset);
+					ClusterProperties cp = session.getNextLineBreak(offset);
 					offset = cp.getEnd();
 					++syllableCount;
 				}
@@ -85,81 +83,115 @@ public class MyanmarBreaker
 	 */
 	public void parse(BufferedReader r, BufferedWriter w) throws IOException
 	{
-		MyanmarParser mp = new MyanmarParser();
+		MyanmarParser mp = MyanmarParser.getInstance();
 		String line = r.readLine();
-		Vector<ClusterProperties> syllables = new Vector<ClusterProperties>();
+		SyllableBoundaries syllables = new SyllableBoundaries();
 		while (line != null)
 		{
-			int offset = 0;
-			do
+			if (line.length() == 0)
 			{
-				if (line.length() == 0)
-				{
-					w.newLine();
-					continue;
-				}
-				ClusterProperties cp = mp.getNextSyllable(line, offset);
-				syllables.add(cp);
-				MyPairStatus status = cp.getBreakStatus();
-				if (status == MyPairStatus.MY_PAIR_WORD_BREAK ||
-					status == MyPairStatus.MY_PAIR_EOL ||
-					status == MyPairStatus.MY_PAIR_PUNCTUATION)
+				w.newLine();
+			}
+			else
+			{
+				SyllableCursor cursor = mp.newSession(line).cursor();
+				syllables.reset(0);
+				while (cursor.advance())
 				{
-					checkAndAppendSyllables(w, line, syllables);
+					int status = cursor.getStatus();
+					syllables.add(cursor.getEnd(), status);
+					if (status == MyanmarParser.PAIR_WORD_BREAK ||
+						status == MyanmarParser.PAIR_EOL ||
+						status == MyanmarParser.PAIR_PUNCTUATION)
+					{
+						checkAndAppendSyllables(w, line, syllables);
+					}
 				}
-				offset = cp.getEnd();
-			} while (offset < line.length());
+			}
 			w.newLine();
 			line = r.readLine();
 		}
 	}
 	
-	protected void checkAndAppendSyllables(BufferedWriter w, String line, Vector<ClusterProperties> syllables) throws IOException
+	/**
+	 * Writes the pending syllables of a line, inserting the spacer between
+	 * the longest dictionary words which can be found, and then clears them.
+	 * @param w
+	 * @param line
+	 * @param syllables pending syllables of the line
+	 * @throws IOException
+	 */
+	protected void checkAndAppendSyllables(BufferedWriter w, String line, SyllableBoundaries syllables) throws IOException
 	{
-		while (syllables.size() > 0)
+		int count = syllables.size();
+		int first = 0;
+		while (first < count)
 		{
-			int candidateLength = Math.min(syllables.size(), mMaxSyllables);
+			int candidateLength = Math.min(count - first, mMaxSyllables);
+			int start = syllables.getStart(first);
 				
 			for (; candidateLength > 0; --candidateLength)
 			{
-				ClusterProperties endSyllable = syllables.elementAt(candidateLength - 1);
-
-				String candidate = line.substring(syllables.firstElement().getStart(),
-						endSyllable.getEnd());
-				if (mWordList.contains(candidate))
+				int last = first + candidateLength - 1;
+				int end = syllables.getEnd(last);
+				if (mWordList.contains(line.substring(start, end)))
 				{
-					w.append(candidate);
-					appendSpacer(w, line, endSyllable);
-					List <ClusterProperties> wordCP = new ArrayList<ClusterProperties>(syllables.subList(0, candidateLength));
-					syllables.removeAll(wordCP);
+					w.write(line, start, end - start);
+					appendSpacer(w, line, end, syllables.getStatus(last));
+					first = last + 1;
 					break;
 				}
 			}
 			if (candidateLength == 0)
 			{
 				// no match found, so append first syllable as is
-				w.append(line.substring(syllables.firstElement().getStart(), syllables.firstElement().getEnd()));
-				appendSpacer(w, line, syllables.firstElement());
-				syllables.remove(0);
+				int end = syllables.getEnd(first);
+				w.write(line, start, end - start);
+				appendSpacer(w, line, end, syllables.getStatus(first));
+				++first;
 			}
 		}
+		if (count > 0)
+			syllables.reset(syllables.getEnd(count - 1));
+	}
+	
+	/**
+	 * Writes the pending syllables of a line and then clears them.
+	 * @param w
+	 * @param line
+	 * @param syllables pending syllables of the line
+	 * @throws IOException
+	 * @deprecated parse calls the SyllableBoundaries form of this method,
+	 * so override that instead
+	 */
+	@Deprecated
+	protected void checkAndAppendSyllables(BufferedWriter w, String line, Vector<ClusterProperties> syllables) throws IOException
+	{
+		if (syllables.size() == 0) return;
+		SyllableBoundaries boundaries = new SyllableBoundaries();
+		boundaries.reset(syllables.firstElement().getStart());
+		for (ClusterProperties cp : syllables)
+		{
+			boundaries.add(cp.getEnd(), cp.getBreakStatus().ordinal());
+		}
+		checkAndAppendSyllables(w, line, boundaries);
+		syllables.clear();
 	}
 	
-	private void appendSpacer(BufferedWriter w, String line, ClusterProperties endSyllable) throws IOException
+	private void appendSpacer(BufferedWriter w, String line, int end, int status) throws IOException
 	{
-		MyPairStatus status = endSyllable.getBreakStatus();
-		if (status == MyPairStatus.MY_PAIR_WORD_BREAK)
+		if (status == MyanmarParser.PAIR_WORD_BREAK)
 		{
-			if (Character.getType(line.charAt(endSyllable.getEnd() - 1)) !=
+			if (Character.getType(line.charAt(end - 1)) !=
 				Character.SPACE_SEPARATOR &&
-				(endSyllable.getEnd() != line.length()) &&
-				Character.getType(line.charAt(endSyllable.getEnd())) !=
+				(end != line.length()) &&
+				Character.getType(line.charAt(end)) !=
 				Character.SPACE_SEPARATOR)
 			{
 				w.append(mSpacer);
 			}
 		}
-		else if (status == MyPairStatus.MY_PAIR_SYL_BREAK)
+		else if (status == MyanmarParser.PAIR_SYL_BREAK)
 		{
 			w.append(mSpacer);
 		}
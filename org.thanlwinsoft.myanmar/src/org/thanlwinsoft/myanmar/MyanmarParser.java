@@ -31,7 +31,8 @@
  */
  package org.thanlwinsoft.myanmar;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.util.stream.Stream;
 
 /**
 * A class to parse Myanamar Text for line break points. 
@@ -40,6 +41,16 @@ import java.util.ArrayList;
 * with Myanmar.
 * It implements the algorithm described at:
 * http://www.thanlwinsoft.org/ThanLwinSoft/MyanmarUnicode/Parsing/
+* <p>
+* Concurrency: a MyanmarParser has no mutable state and its tables are 
+* built once when the class is loaded, so a single instance may be shared
+* by any number of threads without synchronization. Use getInstance() 
+* rather than creating a parser per thread or request. The objects it 
+* creates which track a position in a text, such as ParseSession, 
+* SyllableCursor, SyllableBoundaries, SyllableReader, SegmentedText and
+* MyanmarBreakIterator, are not thread safe and should be used by one 
+* thread at a time. ClusterProperties and Syllable are immutable.
+* </p>
 */
 public class MyanmarParser
 {
@@ -61,6 +72,23 @@ public class MyanmarParser
      * Pwo Karen
      */
     public final static int LANG_PWO = 2; // Pwo Karen
+
+    // break status codes used by the primitive parsing methods, these are
+    // the ordinals of MyPairStatus and the values stored in PAIR_TABLE
+    /** illegal sequence */
+    public final static int PAIR_ILLEGAL = 0;
+    /** no break */
+    public final static int PAIR_NO_BREAK = 1;
+    /** syllable break */
+    public final static int PAIR_SYL_BREAK = 2;
+    /** word break */
+    public final static int PAIR_WORD_BREAK = 3;
+    /** punctuation break */
+    public final static int PAIR_PUNCTUATION = 4;
+    /** needs further context analysis */
+    public final static int PAIR_CONTEXT = 5;
+    /** end of line */
+    public final static int PAIR_EOL = 6;
   
     /**
      * Parts of a Myanmar syllable
@@ -145,6 +173,26 @@ public class MyanmarParser
          * end of line
          */
         MY_PAIR_EOL;
+
+        private static final MyPairStatus [] CODES = values();
+
+        /**
+         * @return status code as used by the primitive parsing methods
+         */
+        public int getCode()
+        {
+            return ordinal();
+        }
+
+        /**
+         * Convert a primitive status code back to the enum
+         * @param code PAIR_* status code
+         * @return status
+         */
+        public static MyPairStatus fromCode(int code)
+        {
+            return CODES[code];
+        }
     }
 
 	static final MySyllablePart [] CHAR_PART = new MySyllablePart[]
@@ -327,59 +375,112 @@ public class MyanmarParser
     		 { 3, 2, 0, 0, 0, 0, 0, 2, 0 }//S
       };
 
+	  private static final MySyllablePart [] PARTS = MySyllablePart.values();
+	  /** row length of PAIR_STATUS, so a row can be found with a shift */
+	  private static final int PAIR_ROW_SHIFT = 4;
+	  /** 
+	   * number of characters classified at a time by segment, which starts
+	   * with FIRST_CLASS_BLOCK and doubles, so a call which only fills a 
+	   * few syllables does not classify much more text than it segments
+	   */
+	  private static final int CLASS_BLOCK = 1024;
+	  private static final int FIRST_CLASS_BLOCK = 32;
+	  /** symbols of the block being segmented, reused by each thread */
+	  private static final ThreadLocal<byte []> sSymbols = 
+		  new ThreadLocal<byte []>()
+		  {
+			  protected byte [] initialValue()
+			  {
+				  return new byte[CLASS_BLOCK];
+			  }
+		  };
+	  /**
+	   * PAIR_TABLE flattened to one array indexed by
+	   * (before class << PAIR_ROW_SHIFT) | after class
+	   */
+	  static final byte [] PAIR_STATUS = 
+		  new byte[PAIR_TABLE.length << PAIR_ROW_SHIFT];
+
+	  static
+	  {
+		  for (int row = 0; row < PAIR_TABLE.length; row++)
+		  {
+			  for (int col = 0; col < PAIR_TABLE[row].length; col++)
+			  {
+				  PAIR_STATUS[(row << PAIR_ROW_SHIFT) | col] = 
+					  (byte)PAIR_TABLE[row][col];
+			  }
+		  }
+	  }
+
+  /**
+   * The default rules and shared instance are created on first use, 
+   * CharProperties reads CHAR_PART while it is initialized so this class 
+   * must not use CharProperties while it is being initialized itself.
+   */
+  private static final class Defaults
+  {
+	  /** PAIR_TABLE and the special cases of evaluateContext as rules */
+	  static final BreakRules RULES = 
+		  BreakRules.create(PAIR_TABLE, BreakRules.DEFAULT_RULES);
+
+	  static final MyanmarParser INSTANCE = new MyanmarParser();
+  }
+
+  private final BreakRules mRules;
+
+  /**
+   * Creates a parser using the default break rules, getInstance() should
+   * normally be used instead.
+   */
+  public MyanmarParser()
+  {
+    this(Defaults.RULES);
+  }
+
+  /**
+   * Creates a parser using its own break rules e.g. 
+   * BreakRules.getDefault().extend(reader)
+   * @param rules break rules
+   */
+  public MyanmarParser(BreakRules rules)
+  {
+    mRules = rules;
+  }
+
+  /**
+   * Shared parser, which is safe to use from any thread.
+   * @return the shared MyanmarParser
+   */
+  public static MyanmarParser getInstance()
+  {
+    return Defaults.INSTANCE;
+  }
+
+  /**
+   * @return the break rules used by this parser
+   */
+  public BreakRules getBreakRules()
+  {
+    return mRules;
+  }
 
   /**
    * Finds the next syllable in the string starting at a given offset.
    * The caller must check the return value to know whether a break is 
    * allowed there or not.
+   * This guesses the language of the whole text on each call, use 
+   * newSession to parse several syllables of the same text.
    * @param text text to search
    * @param offset index to start search
    * @return ClusterProperties
    */
     public ClusterProperties getNextSyllable(String text, int offset)
     {
-    	MyPairStatus breakType = MyPairStatus.MY_PAIR_NO_BREAK;
-		int i = offset;
-		boolean foundCluster = false;
 		if (offset >= text.length()) return null;
-		int langGuess = guessLanguage(text.toCharArray());
-	    while (i + 1 < text.length())
-	    {
-	    	MyPairStatus breakStatus = getBreakStatus(text.charAt(i),text.charAt(i+1));
-	        /*
-	        System.out.println("bs U+" + 
-	                         Integer.toHexString(text.charAt(i)) + ",U+" +
-	                         Integer.toHexString(text.charAt(i+1)) + 
-	                         " =" + breakStatus + " " +
-	                         text.charAt(i) + "|" + text.charAt(i+1));
-	                         */
-	    	if (breakStatus == MyPairStatus.MY_PAIR_NO_BREAK)
-	    	{
-	    	}
-	    	else if (breakStatus == MyPairStatus.MY_PAIR_SYL_BREAK ||
-	    			breakStatus == MyPairStatus.MY_PAIR_WORD_BREAK ||
-	    			breakStatus == MyPairStatus.MY_PAIR_PUNCTUATION ||
-	    			breakStatus == MyPairStatus.MY_PAIR_ILLEGAL)
-	    	{
-			    breakType = breakStatus;
-			    foundCluster = true;
-			}
-			else if (breakStatus == MyPairStatus.MY_PAIR_CONTEXT)
-			{
-			    breakType = evaluateContext(text, i, langGuess);
-			    if (breakType != MyPairStatus.MY_PAIR_NO_BREAK)
-			    	foundCluster = true;
-			}
-			else
-			{
-				// shouldn't happen unless there is an error in this class
-				System.err.println("Unexpected status" + breakStatus);
-		    }
-	    	if (foundCluster) break;
-	    	i++;
-	    }
-	    if (i + 1 == text.length()) breakType = MyPairStatus.MY_PAIR_EOL;
-	    return new ClusterProperties(offset, i + 1, breakType);
+		long syllable = nextSyllable(text, offset, guessLanguage(text));
+		return new ClusterProperties(offset, syllableEnd(syllable), 
+				MyPairStatus.fromCode(syllableStatus(syllable)));
     }
 
 /**
@@ -392,42 +493,612 @@ public class MyanmarParser
    */
   public ClusterProperties getNextSyllable(char [] text, int offset)
   {
-	  MyPairStatus breakType = MyPairStatus.MY_PAIR_NO_BREAK;
-    int i = offset;
-    boolean foundCluster = false;
     if (offset >= text.length) return null;
-    int langGuess = guessLanguage(text);
-    while (i + 1 < text.length)
+    long syllable = nextSyllable(text, offset, text.length, guessLanguage(text));
+    return new ClusterProperties(offset, syllableEnd(syllable), 
+    		MyPairStatus.fromCode(syllableStatus(syllable)));
+  }
+
+  /**
+   * Primitive form of getNextSyllable, which works on status codes and
+   * does not allocate. The offset must be less than the text length.
+   * @param text text to search
+   * @param offset index to start search
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @return end index and PAIR_* status packed into a long, use 
+   * syllableEnd and syllableStatus to unpack them
+   */
+  public long nextSyllable(CharSequence text, int offset, int langHint)
+  {
+    return nextSyllable(text, offset, text.length(), langHint);
+  }
+
+  /**
+   * Primitive form of getNextSyllable, which works on status codes and
+   * does not allocate or copy the text. Characters at or beyond limit are 
+   * never read, so the range may be part of a larger buffer. 
+   * The offset must be less than the limit.
+   * @param text text to search
+   * @param offset index to start search
+   * @param limit end of the text range (exclusive)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @return end index and PAIR_* status packed into a long, use 
+   * syllableEnd and syllableStatus to unpack them
+   */
+  public long nextSyllable(CharSequence text, int offset, int limit, 
+		  int langHint)
+  {
+    int i = offset;
+    if (i + 1 >= limit) return packSyllable(i + 1, PAIR_EOL);
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    int pad = automaton.pad();
+    int state = automaton.start(automaton.symbol(text.charAt(i)), 
+        automaton.symbol(text.charAt(i + 1)), 
+        (i + 2 < limit)? automaton.symbol(text.charAt(i + 2)) : pad);
+    while (true)
     {
-      MyPairStatus breakStatus = getBreakStatus(text[i],text[i+1]);
-      if (breakStatus == MyPairStatus.MY_PAIR_NO_BREAK)
+      int transition = automaton.next(state, (i + 3 < limit)? 
+          automaton.symbol(text.charAt(i + 3)) : pad);
+      int breakType = transition & BreakAutomaton.STATUS_MASK;
+      if (breakType != PAIR_NO_BREAK) return packSyllable(i + 1, breakType);
+      if (++i + 1 == limit) return packSyllable(limit, PAIR_EOL);
+      state = transition >>> BreakAutomaton.STATE_SHIFT;
+    }
+  }
+
+  /**
+   * Primitive form of getNextSyllable, which works on status codes and
+   * does not allocate or copy the text. Characters at or beyond limit are 
+   * never read, so the range may be part of a larger buffer. 
+   * The offset must be less than the limit.
+   * @param text text to search
+   * @param offset index to start search
+   * @param limit end of the text range (exclusive)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @return end index and PAIR_* status packed into a long, use 
+   * syllableEnd and syllableStatus to unpack them
+   */
+  public long nextSyllable(char [] text, int offset, int limit, int langHint)
+  {
+    int i = offset;
+    if (i + 1 >= limit) return packSyllable(i + 1, PAIR_EOL);
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    int pad = automaton.pad();
+    int state = automaton.start(automaton.symbol(text[i]), 
+        automaton.symbol(text[i + 1]), 
+        (i + 2 < limit)? automaton.symbol(text[i + 2]) : pad);
+    while (true)
+    {
+      int transition = automaton.next(state, (i + 3 < limit)? 
+          automaton.symbol(text[i + 3]) : pad);
+      int breakType = transition & BreakAutomaton.STATUS_MASK;
+      if (breakType != PAIR_NO_BREAK) return packSyllable(i + 1, breakType);
+      if (++i + 1 == limit) return packSyllable(limit, PAIR_EOL);
+      state = transition >>> BreakAutomaton.STATE_SHIFT;
+    }
+  }
+
+  /**
+   * Finds the syllable boundary preceding offset by scanning backwards.
+   * The status of the pair before index i only depends on the characters
+   * from i - 1 to i + MAX_CONTEXT_LENGTH - 1, so the result is the same as
+   * scanning forward with nextSyllable from start, but only the preceding
+   * syllable is examined.
+   * @param text text to search
+   * @param start start of the text range, which is always a boundary
+   * @param offset index to search backwards from
+   * @param limit end of the text range (exclusive)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @return the largest boundary less than offset or start if there is none
+   */
+  public int prevSyllable(CharSequence text, int start, int offset, 
+		  int limit, int langHint)
+  {
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    int i = offset - 1;
+    while (i > start)
+    {
+      int breakType = pairStatus(automaton, text, i - 1, limit);
+      if (breakType != PAIR_NO_BREAK) return i;
+      i--;
+    }
+    return start;
+  }
+
+  /**
+   * Finds the syllable boundary preceding offset by scanning backwards.
+   * @see #prevSyllable(CharSequence, int, int, int, int)
+   * @param text text to search
+   * @param start start of the text range, which is always a boundary
+   * @param offset index to search backwards from
+   * @param limit end of the text range (exclusive)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @return the largest boundary less than offset or start if there is none
+   */
+  public int prevSyllable(char [] text, int start, int offset, int limit, 
+		  int langHint)
+  {
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    int i = offset - 1;
+    while (i > start)
+    {
+      int breakType = pairStatus(automaton, text, i - 1, limit);
+      if (breakType != PAIR_NO_BREAK) return i;
+      i--;
+    }
+    return start;
+  }
+
+  /**
+   * Finds the line break opportunity preceding offset by scanning 
+   * backwards, this is the equivalent of getNextLineBreak in reverse.
+   * @param text text to search
+   * @param start start of the text range, which is always a boundary
+   * @param offset index to search backwards from
+   * @param limit end of the text range (exclusive)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @return the largest line break less than offset or start if there is 
+   * none
+   */
+  public int prevLineBreak(CharSequence text, int start, int offset, 
+		  int limit, int langHint)
+  {
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    int i = offset - 1;
+    while (i > start)
+    {
+      int breakType = pairStatus(automaton, text, i - 1, limit);
+      if (isLineBreakCode(breakType)) return i;
+      i--;
+    }
+    return start;
+  }
+
+  /**
+   * Finds the line break opportunity preceding offset by scanning 
+   * backwards, this is the equivalent of getNextLineBreak in reverse.
+   * @param text text to search
+   * @param start start of the text range, which is always a boundary
+   * @param offset index to search backwards from
+   * @param limit end of the text range (exclusive)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @return the largest line break less than offset or start if there is 
+   * none
+   */
+  public int prevLineBreak(char [] text, int start, int offset, int limit, 
+		  int langHint)
+  {
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    int i = offset - 1;
+    while (i > start)
+    {
+      int breakType = pairStatus(automaton, text, i - 1, limit);
+      if (isLineBreakCode(breakType)) return i;
+      i--;
+    }
+    return start;
+  }
+
+  /**
+   * Finds successive syllables of a text range and stores their end 
+   * offsets and PAIR_* status codes in caller supplied arrays, which can be
+   * reused between calls. Segmentation stops when the range or either 
+   * array is exhausted. If the arrays fill up, call again with 
+   * offset = ends[count - 1] and the same langHint to continue.
+   * The text is processed in blocks, the characters of a block are first
+   * classified and then the break automaton reads their symbols.
+   * @param text text to segment
+   * @param offset index to start segmentation
+   * @param limit end of the text range (exclusive)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @param ends receives the end index of each syllable
+   * @param statuses receives the break status at the end of each syllable
+   * @return number of syllables stored
+   */
+  public int segment(CharSequence text, int offset, int limit, int langHint,
+		  int [] ends, byte [] statuses)
+  {
+    int max = Math.min(ends.length, statuses.length);
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    byte [] symbols = sSymbols.get();
+    int blockLength = FIRST_CLASS_BLOCK;
+    int blockStart = offset;
+    int blockEnd = offset;
+    int state = -1;
+    int count = 0;
+    int i = offset;
+    while (i < limit && count < max)
+    {
+      if (i + 1 >= limit)
       {
+        ends[count] = limit;
+        statuses[count++] = PAIR_EOL;
+        break;
       }
-      else if (breakStatus == MyPairStatus.MY_PAIR_SYL_BREAK ||
-    		   breakStatus == MyPairStatus.MY_PAIR_WORD_BREAK ||
-    		   breakStatus == MyPairStatus.MY_PAIR_PUNCTUATION ||
-    		   breakStatus == MyPairStatus.MY_PAIR_ILLEGAL)
+      if (i + MAX_CONTEXT_LENGTH >= blockEnd)
       {
-          breakType = breakStatus;
-          foundCluster = true;
+        blockStart = i;
+        blockEnd = Math.min(i + blockLength, limit + MAX_CONTEXT_LENGTH);
+        classify(automaton, text, blockStart, blockEnd, limit, symbols);
+        blockLength = Math.min(blockLength << 1, CLASS_BLOCK);
       }
-      else if (breakStatus == MyPairStatus.MY_PAIR_CONTEXT)
+      if (state < 0)
+        state = automaton.start(symbols[i - blockStart], 
+            symbols[i + 1 - blockStart], symbols[i + 2 - blockStart]);
+      int transition = automaton.next(state, symbols[i + 3 - blockStart]);
+      int breakType = transition & BreakAutomaton.STATUS_MASK;
+      state = transition >>> BreakAutomaton.STATE_SHIFT;
+      i++;
+      if (breakType != PAIR_NO_BREAK)
       {
-          breakType = evaluateContext(new String(text), i, langGuess);
-          if (breakType != MyPairStatus.MY_PAIR_NO_BREAK)
-            foundCluster = true;
+        ends[count] = i;
+        statuses[count++] = (byte)breakType;
       }
-      else
+    }
+    return count;
+  }
+
+  /**
+   * Finds successive syllables of a char array range and stores their end 
+   * offsets and PAIR_* status codes in caller supplied arrays, which can be
+   * reused between calls. Segmentation stops when the range or either 
+   * array is exhausted. If the arrays fill up, call again with 
+   * offset = ends[count - 1] and the same langHint to continue.
+   * The text is processed in blocks, the characters of a block are first
+   * classified and then the break automaton reads their symbols.
+   * @param text text to segment
+   * @param offset index to start segmentation
+   * @param limit end of the text range (exclusive)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @param ends receives the end index of each syllable
+   * @param statuses receives the break status at the end of each syllable
+   * @return number of syllables stored
+   */
+  public int segment(char [] text, int offset, int limit, int langHint,
+		  int [] ends, byte [] statuses)
+  {
+    int max = Math.min(ends.length, statuses.length);
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    byte [] symbols = sSymbols.get();
+    int blockLength = FIRST_CLASS_BLOCK;
+    int blockStart = offset;
+    int blockEnd = offset;
+    int state = -1;
+    int count = 0;
+    int i = offset;
+    while (i < limit && count < max)
+    {
+      if (i + 1 >= limit)
+      {
+        ends[count] = limit;
+        statuses[count++] = PAIR_EOL;
+        break;
+      }
+      if (i + MAX_CONTEXT_LENGTH >= blockEnd)
       {
-    	  // shouldn't happen unless there is an error in this class
-          System.err.println("Unexpected status" + breakStatus);
+        blockStart = i;
+        blockEnd = Math.min(i + blockLength, limit + MAX_CONTEXT_LENGTH);
+        classify(automaton, text, blockStart, blockEnd, limit, symbols);
+        blockLength = Math.min(blockLength << 1, CLASS_BLOCK);
       }
-      if (foundCluster) break;
+      if (state < 0)
+        state = automaton.start(symbols[i - blockStart], 
+            symbols[i + 1 - blockStart], symbols[i + 2 - blockStart]);
+      int transition = automaton.next(state, symbols[i + 3 - blockStart]);
+      int breakType = transition & BreakAutomaton.STATUS_MASK;
+      state = transition >>> BreakAutomaton.STATE_SHIFT;
       i++;
+      if (breakType != PAIR_NO_BREAK)
+      {
+        ends[count] = i;
+        statuses[count++] = (byte)breakType;
+      }
     }
-    if (i + 1 == text.length) breakType = MyPairStatus.MY_PAIR_EOL;
-    return new ClusterProperties(offset, i + 1, breakType);
+    return count;
+  }
+
+  /**
+   * Finds successive syllables of UTF-8 text without decoding it to 
+   * UTF-16, so text in a MappedByteBuffer can be segmented in place. 
+   * The offsets are absolute indices of the buffer, its position and limit
+   * are ignored, and the end of each syllable is stored as a byte offset.
+   * Otherwise this is the same as segmenting the decoded text with 
+   * segment(char[], int, int, int, int[], byte[]). Supplementary 
+   * characters are read as one character with the class of their high 
+   * surrogate and malformed bytes as U+FFFD.
+   * @param utf8 UTF-8 encoded text
+   * @param offset byte offset to start segmentation, which must be the 
+   * start of a character
+   * @param limit end of the text range (exclusive byte offset)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @param ends receives the end byte offset of each syllable
+   * @param statuses receives the break status at the end of each syllable
+   * @return number of syllables stored, if the arrays fill up call again
+   * with offset = ends[count - 1] to continue
+   */
+  public int segmentUtf8(ByteBuffer utf8, int offset, int limit, 
+		  int langHint, int [] ends, byte [] statuses)
+  {
+    int max = Math.min(ends.length, statuses.length);
+    if (offset >= limit || max == 0) return 0;
+    BreakAutomaton automaton = mRules.getAutomaton(langHint);
+    int pad = automaton.pad();
+    // the pair is between the characters before b1 and at b1, the 2 
+    // characters after it start at b2 and b3, each is limit if past the end
+    long unit = decodeUtf8(utf8, offset, limit);
+    int s0 = automaton.symbol((char)unit);
+    int b1 = (int)(unit >>> 16);
+    int s1 = pad;
+    int b2 = limit;
+    if (b1 < limit)
+    {
+      unit = decodeUtf8(utf8, b1, limit);
+      s1 = automaton.symbol((char)unit);
+      b2 = (int)(unit >>> 16);
+    }
+    int s2 = pad;
+    int b3 = limit;
+    if (b2 < limit)
+    {
+      unit = decodeUtf8(utf8, b2, limit);
+      s2 = automaton.symbol((char)unit);
+      b3 = (int)(unit >>> 16);
+    }
+    int state = automaton.start(s0, s1, s2);
+    int count = 0;
+    while (b1 < limit)
+    {
+      int s3 = pad;
+      int b4 = limit;
+      if (b3 < limit)
+      {
+        unit = decodeUtf8(utf8, b3, limit);
+        s3 = automaton.symbol((char)unit);
+        b4 = (int)(unit >>> 16);
+      }
+      int transition = automaton.next(state, s3);
+      state = transition >>> BreakAutomaton.STATE_SHIFT;
+      int breakType = transition & BreakAutomaton.STATUS_MASK;
+      if (breakType != PAIR_NO_BREAK)
+      {
+        ends[count] = b1;
+        statuses[count++] = (byte)breakType;
+        if (count == max) return count;
+      }
+      b1 = b2;
+      b2 = b3;
+      b3 = b4;
+    }
+    ends[count] = limit;
+    statuses[count++] = PAIR_EOL;
+    return count;
+  }
+
+  /**
+   * Finds successive syllables of UTF-8 text in a byte array.
+   * @see #segmentUtf8(ByteBuffer, int, int, int, int[], byte[])
+   * @param utf8 UTF-8 encoded text
+   * @param offset byte offset to start segmentation
+   * @param limit end of the text range (exclusive byte offset)
+   * @param langHint LANG_* value e.g. from guessLanguage
+   * @param ends receives the end byte offset of each syllable
+   * @param statuses receives the break status at the end of each syllable
+   * @return number of syllables stored
+   */
+  public int segmentUtf8(byte [] utf8, int offset, int limit, int langHint,
+		  int [] ends, byte [] statuses)
+  {
+    return segmentUtf8(ByteBuffer.wrap(utf8), offset, limit, langHint, ends,
+                       statuses);
+  }
+
+  /**
+   * Decodes one character of UTF-8 text.
+   * @param utf8 UTF-8 encoded text
+   * @param offset byte offset of the character
+   * @param limit end of the text range (exclusive byte offset)
+   * @return offset of the next character << 16 | the character, which is
+   * the high surrogate of a supplementary character or U+FFFD for a 
+   * malformed byte
+   */
+  static long decodeUtf8(ByteBuffer utf8, int offset, int limit)
+  {
+    int b0 = utf8.get(offset) & 0xFF;
+    if (b0 < 0x80) return ((long)(offset + 1) << 16) | b0;
+    int length;
+    int c;
+    int min;
+    if (b0 >= 0xC2 && b0 <= 0xDF)
+    {
+      length = 2;
+      c = b0 & 0x1F;
+      min = 0x80;
+    }
+    else if (b0 >= 0xE0 && b0 <= 0xEF)
+    {
+      length = 3;
+      c = b0 & 0x0F;
+      min = 0x800;
+    }
+    else if (b0 >= 0xF0 && b0 <= 0xF4)
+    {
+      length = 4;
+      c = b0 & 0x07;
+      min = 0x10000;
+    }
+    else return ((long)(offset + 1) << 16) | 0xFFFD;
+    if (offset + length > limit) return ((long)(offset + 1) << 16) | 0xFFFD;
+    for (int i = 1; i < length; i++)
+    {
+      int b = utf8.get(offset + i);
+      if ((b & 0xC0) != 0x80) return ((long)(offset + 1) << 16) | 0xFFFD;
+      c = (c << 6) | (b & 0x3F);
+    }
+    if (c < min || c > 0x10FFFF || (c >= 0xD800 && c <= 0xDFFF))
+      return ((long)(offset + 1) << 16) | 0xFFFD;
+    if (c >= 0x10000) c = Character.highSurrogate(c);
+    return ((long)(offset + length) << 16) | c;
+  }
+
+  /**
+   * First pass of segment, which stores the automaton symbol of each 
+   * character of a block, so that the second pass only needs transitions.
+   * @param automaton
+   * @param text
+   * @param start first index of the block
+   * @param end end of the block (exclusive), which may be beyond limit
+   * @param limit end of the text range, the symbols from here are padding
+   * @param symbols receives the symbol of each character from index 0
+   */
+  static void classify(BreakAutomaton automaton, char [] text, int start, 
+                       int end, int limit, byte [] symbols)
+  {
+    int i = start;
+    for (; i < end && i < limit; i++)
+    {
+      symbols[i - start] = (byte)automaton.symbol(text[i]);
+    }
+    for (; i < end; i++)
+    {
+      symbols[i - start] = (byte)automaton.pad();
+    }
+  }
+
+  /**
+   * First pass of segment for a CharSequence.
+   * @see #classify(BreakAutomaton, char[], int, int, int, byte[])
+   */
+  static void classify(BreakAutomaton automaton, CharSequence text, 
+                       int start, int end, int limit, byte [] symbols)
+  {
+    int i = start;
+    for (; i < end && i < limit; i++)
+    {
+      symbols[i - start] = (byte)automaton.symbol(text.charAt(i));
+    }
+    for (; i < end; i++)
+    {
+      symbols[i - start] = (byte)automaton.pad();
+    }
+  }
+
+  /**
+   * Finds the status of a single pair with the automaton.
+   * @param automaton
+   * @param text
+   * @param i index of the first character of the pair
+   * @param limit end of the text range (exclusive)
+   * @return PAIR_* status between the characters at i and i + 1
+   */
+  private static int pairStatus(BreakAutomaton automaton, CharSequence text,
+                                int i, int limit)
+  {
+    int pad = automaton.pad();
+    return automaton.getStatus(automaton.symbol(text.charAt(i)), 
+        automaton.symbol(text.charAt(i + 1)),
+        (i + 2 < limit)? automaton.symbol(text.charAt(i + 2)) : pad,
+        (i + 3 < limit)? automaton.symbol(text.charAt(i + 3)) : pad);
+  }
+
+  /**
+   * Finds the status of a single pair with the automaton.
+   * @see #pairStatus(BreakAutomaton, CharSequence, int, int)
+   */
+  private static int pairStatus(BreakAutomaton automaton, char [] text,
+                                int i, int limit)
+  {
+    int pad = automaton.pad();
+    return automaton.getStatus(automaton.symbol(text[i]), 
+        automaton.symbol(text[i + 1]),
+        (i + 2 < limit)? automaton.symbol(text[i + 2]) : pad,
+        (i + 3 < limit)? automaton.symbol(text[i + 3]) : pad);
+  }
+
+  /**
+   * Finds every syllable boundary of a text at once.
+   * @param text text to segment
+   * @param boundaries reusable result, which is cleared first
+   * @return boundaries
+   */
+  public SyllableBoundaries segment(CharSequence text, 
+		  SyllableBoundaries boundaries)
+  {
+    return newSession(text).segment(0, boundaries);
+  }
+
+  /**
+   * @param syllable packed result of nextSyllable
+   * @return end index of the syllable (exclusive)
+   */
+  public static int syllableEnd(long syllable)
+  {
+    return (int)(syllable >>> 32);
+  }
+
+  /**
+   * @param syllable packed result of nextSyllable
+   * @return PAIR_* break status at the end of the syllable
+   */
+  public static int syllableStatus(long syllable)
+  {
+    return (int)syllable;
+  }
+
+  static long packSyllable(int end, int breakStatus)
+  {
+    return ((long)end << 32) | breakStatus;
+  }
+
+  /**
+   * Creates a parse session for the given text. The session guesses the 
+   * language of the text once, so it should be used in preference to 
+   * repeated calls of getNextSyllable(String, int) on the same text.
+   * @param text text to parse
+   * @return session
+   */
+  public ParseSession newSession(CharSequence text)
+  {
+    return new ParseSession(this, text, null, 0, text.length());
+  }
+
+  /**
+   * Creates a parse session for part of a text, which is parsed in place.
+   * Offsets used with the session are indices into text.
+   * @param text text to parse e.g. a StringBuilder or CharBuffer
+   * @param start first index of the range
+   * @param limit end of the range (exclusive)
+   * @return session
+   */
+  public ParseSession newSession(CharSequence text, int start, int limit)
+  {
+    return new ParseSession(this, text, null, start, limit);
+  }
+
+  /**
+   * Creates a parse session for part of a char array, which is parsed in
+   * place. Offsets used with the session are indices into the array.
+   * @param text text to parse
+   * @param start first index of the range
+   * @param limit end of the range (exclusive)
+   * @return session
+   */
+  public ParseSession newSession(char [] text, int start, int limit)
+  {
+    return new ParseSession(this, null, text, start, limit);
   }
+
+  /**
+   * Creates a stream of every syllable of a text, see ParseSession.stream.
+   * The language is guessed once for the whole text.
+   * @param text text to segment e.g. a large in memory corpus
+   * @param parallel true for a parallel stream
+   * @return new Stream
+   */
+  public Stream<Syllable> stream(CharSequence text, boolean parallel)
+  {
+    return newSession(text).stream(parallel);
+  }
+
     /**
      * Guess language for given text
      * @param text
@@ -435,41 +1106,365 @@ public class MyanmarParser
      */
   public int guessLanguage(char [] text)
   {
+    return guessLanguage(text, 0, text.length);
+  }
+
+  /**
+   * Guess language for a range of the given text
+   * @param text
+   * @param start first index of the range
+   * @param limit end of the range (exclusive)
+   * @return language id
+   */
+  public int guessLanguage(char [] text, int start, int limit)
+  {
+    int language = LANG_MY;
+    char prevChar = ' ';
+    for (int i = start; i < limit && language == LANG_MY; i++)
+    {
+        language = getLanguageIndicator(prevChar, text[i]);
+        prevChar = text[i];
+    }
+    return language;
+  }
+
+  /**
+   * Guess language for given text without copying it
+   * @param text
+   * @return language id
+   */
+  public int guessLanguage(CharSequence text)
+  {
+    return guessLanguage(text, 0, text.length());
+  }
+
+  /**
+   * Guess language for a range of the given text without copying it
+   * @param text
+   * @param start first index of the range
+   * @param limit end of the range (exclusive)
+   * @return language id
+   */
+  public int guessLanguage(CharSequence text, int start, int limit)
+  {
+    int language = LANG_MY;
+    char prevChar = ' ';
+    for (int i = start; i < limit && language == LANG_MY; i++)
+    {
+        char c = text.charAt(i);
+        language = getLanguageIndicator(prevChar, c);
+        prevChar = c;
+    }
+    return language;
+  }
+
+  /**
+   * Guess language for a range of UTF-8 text without decoding it
+   * @param utf8 UTF-8 encoded text
+   * @param start first byte offset of the range
+   * @param limit end of the range (exclusive byte offset)
+   * @return language id
+   */
+  public int guessLanguage(ByteBuffer utf8, int start, int limit)
+  {
+    int language = LANG_MY;
+    char prevChar = ' ';
+    for (int i = start; i < limit && language == LANG_MY; )
+    {
+        long unit = decodeUtf8(utf8, i, limit);
+        char c = (char)unit;
+        language = getLanguageIndicator(prevChar, c);
+        prevChar = c;
+        i = (int)(unit >>> 16);
+    }
+    return language;
+  }
+
+  /**
+   * Finds the language run starting at offset. A run is either a maximal 
+   * range of characters that may occur in a Myanmar script word, 
+   * including format characters, or a maximal range of spaces, ZWSP and
+   * other characters. A word run also ends after a section sign U+104A or
+   * U+104B. The language of a word run is guessed from the first language
+   * indicator within it, so a word or quotation in another language does
+   * not change the language of the surrounding words. Other runs are 
+   * LANG_MY.
+   * @param text text to search
+   * @param offset index of the start of a run, which must be less than 
+   * limit
+   * @param limit end of the text range (exclusive)
+   * @return packed run end and LANG_* value, which are unpacked with 
+   * syllableEnd and syllableStatus
+   */
+  public long nextLanguageRun(CharSequence text, int offset, int limit)
+  {
+    int i = offset;
+    if (isRunSeparator(text.charAt(i)))
+    {
+      while (++i < limit && isRunSeparator(text.charAt(i)));
+      return packSyllable(i, LANG_MY);
+    }
     int language = LANG_MY;
     char prevChar = ' ';
-    for (int i = 0; i < text.length && language == LANG_MY; i++)
+    while (i < limit)
     {
-        // we could look for specific sequences that are Karen specific as well
-        switch (text[i])
+      char c = text.charAt(i);
+      if (isRunSeparator(c)) break;
+      if (language == LANG_MY) language = getLanguageIndicator(prevChar, c);
+      prevChar = c;
+      i++;
+      if (c == 0x104A || c == 0x104B) break;
+    }
+    return packSyllable(i, language);
+  }
+
+  /**
+   * Finds the language run starting at offset.
+   * @see #nextLanguageRun(CharSequence, int, int)
+   * @param text text to search
+   * @param offset index of the start of a run, which must be less than 
+   * limit
+   * @param limit end of the text range (exclusive)
+   * @return packed run end and LANG_* value, which are unpacked with 
+   * syllableEnd and syllableStatus
+   */
+  public long nextLanguageRun(char [] text, int offset, int limit)
+  {
+    int i = offset;
+    if (isRunSeparator(text[i]))
+    {
+      while (++i < limit && isRunSeparator(text[i]));
+      return packSyllable(i, LANG_MY);
+    }
+    int language = LANG_MY;
+    char prevChar = ' ';
+    while (i < limit)
+    {
+      char c = text[i];
+      if (isRunSeparator(c)) break;
+      if (language == LANG_MY) language = getLanguageIndicator(prevChar, c);
+      prevChar = c;
+      i++;
+      if (c == 0x104A || c == 0x104B) break;
+    }
+    return packSyllable(i, language);
+  }
+
+  /**
+   * Tests whether a character separates Myanmar language runs.
+   * @param c character to test
+   * @return true if c is a space or ZWSP, or has no syllable class and is
+   * not a format character
+   */
+  static boolean isRunSeparator(char c)
+  {
+    if (Character.isSpaceChar(c) || c == 0x200B) return true;
+    return getCharClassCode(c) == 0 && 
+      Character.getType(c) != Character.FORMAT;
+  }
+
+  /**
+   * Finds the start of the language run containing offset by scanning 
+   * backwards, which only examines the run itself.
+   */
+  private static int runStart(CharSequence text, int start, int offset)
+  {
+    int i = offset;
+    if (isRunSeparator(text.charAt(i)))
+    {
+      while (i > start && isRunSeparator(text.charAt(i - 1))) i--;
+      return i;
+    }
+    while (i > start)
+    {
+      char c = text.charAt(i - 1);
+      if (isRunSeparator(c) || c == 0x104A || c == 0x104B) break;
+      i--;
+    }
+    return i;
+  }
+
+  /**
+   * Finds the start of the language run containing offset by scanning 
+   * backwards, which only examines the run itself.
+   */
+  private static int runStart(char [] text, int start, int offset)
+  {
+    int i = offset;
+    if (isRunSeparator(text[i]))
+    {
+      while (i > start && isRunSeparator(text[i - 1])) i--;
+      return i;
+    }
+    while (i > start)
+    {
+      char c = text[i - 1];
+      if (isRunSeparator(c) || c == 0x104A || c == 0x104B) break;
+      i--;
+    }
+    return i;
+  }
+
+  /**
+   * Finds successive syllables of a text range like segment, but guesses
+   * the language of each run found by nextLanguageRun as segmentation 
+   * reaches it instead of using one language for the whole text. Each pair
+   * is evaluated with the language of the run containing its first 
+   * character and each syllable is tagged with the language of the run 
+   * containing its first character. Only the run containing offset is 
+   * scanned backwards, so a long text is never rescanned from start.
+   * @param text text to segment
+   * @param start start of the text range
+   * @param offset index to start segmentation
+   * @param limit end of the text range (exclusive)
+   * @param ends receives the end index of each syllable
+   * @param statuses receives the break status at the end of each syllable
+   * @param languages receives the LANG_* value of each syllable
+   * @return number of syllables stored, if the arrays fill up call again
+   * with offset = ends[count - 1] to continue
+   */
+  public int segmentRuns(CharSequence text, int start, int offset, 
+		  int limit, int [] ends, byte [] statuses, byte [] languages)
+  {
+    int max = Math.min(Math.min(ends.length, statuses.length), 
+                       languages.length);
+    if (offset >= limit || max == 0) return 0;
+    long run = nextLanguageRun(text, runStart(text, start, offset), limit);
+    int runEnd = syllableEnd(run);
+    int language = syllableStatus(run);
+    BreakAutomaton automaton = mRules.getAutomaton(language);
+    int pad = automaton.pad();
+    int state = -1;
+    int count = 0;
+    int syllableStart = offset;
+    int syllableLanguage = language;
+    int i = offset;
+    while (true)
+    {
+      if (i >= runEnd)
+      {
+        run = nextLanguageRun(text, runEnd, limit);
+        runEnd = syllableEnd(run);
+        if (syllableStatus(run) != language)
         {
-        case 0x1060:
-        case 0x1061:
-        case 0x1062:
-        case 0x1063:
-        case 0x1064:
-            language = LANG_KSW;
-            break;
-        case 0x1065:
-        case 0x1066:
-        case 0x1067:
-        case 0x1068:
-        case 0x1069:
-        case 0x106a:
-        case 0x106b:
-        case 0x106c:
-        case 0x106d:
-        	language = LANG_PWO;
-        	break;
-        case 0x102C:
-            if (prevChar == 0x1036 || prevChar == 0x1037)
-            {
-                language = LANG_KSW;
-                break;
-            }
-        default:
-            prevChar = text[i];
+          language = syllableStatus(run);
+          automaton = mRules.getAutomaton(language);
+          state = -1;
         }
+      }
+      if (i == syllableStart) syllableLanguage = language;
+      if (i + 1 >= limit)
+      {
+        ends[count] = limit;
+        statuses[count] = PAIR_EOL;
+        languages[count++] = (byte)syllableLanguage;
+        break;
+      }
+      if (state < 0)
+        state = automaton.start(automaton.symbol(text.charAt(i)), 
+            automaton.symbol(text.charAt(i + 1)), 
+            (i + 2 < limit)? automaton.symbol(text.charAt(i + 2)) : pad);
+      int transition = automaton.next(state, (i + 3 < limit)? 
+          automaton.symbol(text.charAt(i + 3)) : pad);
+      int breakType = transition & BreakAutomaton.STATUS_MASK;
+      state = transition >>> BreakAutomaton.STATE_SHIFT;
+      i++;
+      if (breakType != PAIR_NO_BREAK)
+      {
+        ends[count] = i;
+        statuses[count] = (byte)breakType;
+        languages[count++] = (byte)syllableLanguage;
+        if (count == max) break;
+        syllableStart = i;
+      }
     }
+    return count;
+  }
+
+  /**
+   * Finds successive syllables of a char array range, guessing the 
+   * language of each run as segmentation reaches it.
+   * @see #segmentRuns(CharSequence, int, int, int, int[], byte[], byte[])
+   * @param text text to segment
+   * @param start start of the text range
+   * @param offset index to start segmentation
+   * @param limit end of the text range (exclusive)
+   * @param ends receives the end index of each syllable
+   * @param statuses receives the break status at the end of each syllable
+   * @param languages receives the LANG_* value of each syllable
+   * @return number of syllables stored, if the arrays fill up call again
+   * with offset = ends[count - 1] to continue
+   */
+  public int segmentRuns(char [] text, int start, int offset, 
+		  int limit, int [] ends, byte [] statuses, byte [] languages)
+  {
+    int max = Math.min(Math.min(ends.length, statuses.length), 
+                       languages.length);
+    if (offset >= limit || max == 0) return 0;
+    long run = nextLanguageRun(text, runStart(text, start, offset), limit);
+    int runEnd = syllableEnd(run);
+    int language = syllableStatus(run);
+    BreakAutomaton automaton = mRules.getAutomaton(language);
+    int pad = automaton.pad();
+    int state = -1;
+    int count = 0;
+    int syllableStart = offset;
+    int syllableLanguage = language;
+    int i = offset;
+    while (true)
+    {
+      if (i >= runEnd)
+      {
+        run = nextLanguageRun(text, runEnd, limit);
+        runEnd = syllableEnd(run);
+        if (syllableStatus(run) != language)
+        {
+          language = syllableStatus(run);
+          automaton = mRules.getAutomaton(language);
+          state = -1;
+        }
+      }
+      if (i == syllableStart) syllableLanguage = language;
+      if (i + 1 >= limit)
+      {
+        ends[count] = limit;
+        statuses[count] = PAIR_EOL;
+        languages[count++] = (byte)syllableLanguage;
+        break;
+      }
+      if (state < 0)
+        state = automaton.start(automaton.symbol(text[i]), 
+            automaton.symbol(text[i + 1]), 
+            (i + 2 < limit)? automaton.symbol(text[i + 2]) : pad);
+      int transition = automaton.next(state, (i + 3 < limit)? 
+          automaton.symbol(text[i + 3]) : pad);
+      int breakType = transition & BreakAutomaton.STATUS_MASK;
+      state = transition >>> BreakAutomaton.STATE_SHIFT;
+      i++;
+      if (breakType != PAIR_NO_BREAK)
+      {
+        ends[count] = i;
+        statuses[count] = (byte)breakType;
+        languages[count++] = (byte)syllableLanguage;
+        if (count == max) break;
+        syllableStart = i;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Tests whether a character indicates a language other than Myanmar.
+   * @param prevChar the preceding character
+   * @param c character to test
+   * @return LANG_MY if c is not a language indicator
+   */
+  static int getLanguageIndicator(char prevChar, char c)
+  {
+    // we could look for specific sequences that are Karen specific as well
+    int language = CharProperties.getLanguage(c);
+    if (language == CharProperties.LANG_AFTER_TONE)
+      return (prevChar == 0x1036 || prevChar == 0x1037)? LANG_KSW : LANG_MY;
     return language;
   }
     
@@ -483,17 +1478,22 @@ public class MyanmarParser
    */
   public ClusterProperties getNextLineBreak(String text, int offset)
   {
-    int i = offset;
-    ClusterProperties cp = null;
     if (offset >= text.length()) return null;
-    do
-    {
-      cp = getNextSyllable(text, i);
-      i = cp.getEnd();
-    } while (!isLineBreak(cp.getBreakStatus()) && i < text.length());
-    return new ClusterProperties(offset, cp.getEnd(), cp.getBreakStatus());
+    return newSession(text).getNextLineBreak(offset);
   }
   
+  /**
+   * Segments a text and checks it for illegal pairs in one pass, which 
+   * is quicker than calling segment and checkMyanmar separately.
+   * @param text text to check
+   * @param result reusable result, which is cleared first
+   * @return result
+   */
+  public SegmentResult check(CharSequence text, SegmentResult result)
+  {
+    return newSession(text).check(0, result);
+  }
+
   /**
    * Checks for incorrect sequences of Myanmar characters
    * @param text text to search
@@ -502,21 +1502,8 @@ public class MyanmarParser
    */
   public boolean isValidMyanmar(String text, int offset)
   {
-    int i = offset;
-    ClusterProperties cp = null;
-    boolean valid = true;
-    if (offset >= text.length()) return valid;
-    do 
-    {
-      cp = getNextSyllable(text, i);
-      i = cp.getEnd() + 1;
-      if (cp.getBreakStatus() == MyPairStatus.MY_PAIR_ILLEGAL)
-      {  
-        valid = false;
-        break;
-      }
-    } while (i < text.length());
-    return valid;
+    if (offset >= text.length()) return true;
+    return newSession(text).isValidMyanmar(offset);
   }
   
   /**
@@ -527,37 +1514,8 @@ public class MyanmarParser
    */
   public ClusterProperties [] checkMyanmar(String text, int offset)
   {
-    int i = offset;
-    ClusterProperties cp = null;
-    
-    // if you are using Java version < 1.5 change to the commented out
-    // lines
-    //ArrayList errorClusters = null;
-    ArrayList <ClusterProperties> errorClusters = null;
-    boolean valid = true;
     if (offset >= text.length()) return null;
-    boolean prevError = false;
-    do 
-    {
-      cp = getNextSyllable(text, i);
-      i = cp.getEnd() + 1;
-      if (cp.getBreakStatus() == MyPairStatus.MY_PAIR_ILLEGAL || prevError)
-      {  
-        valid = false;
-        if (errorClusters == null)
-        {
-          errorClusters = new ArrayList<ClusterProperties>(1);
-          //errorClusters = new ArrayList(1);
-        }
-        errorClusters.add(cp);
-        if (cp.getBreakStatus() != MyPairStatus.MY_PAIR_ILLEGAL) 
-          prevError = false;
-        else prevError = true;
-      }
-    } while (i < text.length());
-    if (valid) return null;
-    return errorClusters.toArray(new ClusterProperties[errorClusters.size()]);
-    //return (ClusterProperties[])errorClusters.toArray();
+    return newSession(text).checkMyanmar(offset);
   }
   
   /** A simple method to determine whether the break status allows a line
@@ -573,46 +1531,106 @@ public class MyanmarParser
       lineBreak = true;
     return lineBreak;
   }
+  /**
+   * Primitive form of isLineBreak
+   * @param breakStatus PAIR_* status code
+   * @return true if a line break is permissible
+   */
+  public static boolean isLineBreakCode(int breakStatus)
+  {
+    return breakStatus == PAIR_SYL_BREAK || breakStatus == PAIR_WORD_BREAK;
+  }
   /**
   * evaluates the context where a simple pair approach is not enough
   * @param contextText
   * @param offset
   * @return break status of specified offset in text
-  */                      
+  * @deprecated the parser does not call this, since the context rules are
+  * compiled into its BreakAutomaton, so overriding it has no effect.
+  * Extend the rules with BreakRules.extend and pass them to 
+  * MyanmarParser(BreakRules) instead.
+  */
+  @Deprecated
   protected MyPairStatus evaluateContext(String contextText, int offset, int langHint)
   {
-    char [] text;
-    if (contextText.length() >= offset + 4) 
-      text = contextText.substring(offset, offset + 4).toCharArray();
-    else
-    {
-      text = new char[4];
-      for (int i = 0; i<4; i++)
-      {
-        if (offset + i < contextText.length())
-          text[i] = contextText.charAt(offset + i);
-        else text[i] = ' ';
-      }
-    }
+    return MyPairStatus.fromCode(evaluateContext(contextText, offset, 
+    		contextText.length(), langHint));
+  }
+  /**
+  * evaluates the context in place, where a simple pair approach is not
+  * enough. Characters at or beyond limit are treated as spaces.
+  * @param text
+  * @param offset index of the first character of the pair
+  * @param limit end of the text range (exclusive)
+  * @param langHint
+  * @return PAIR_* break status of specified offset in text
+  * @deprecated the parser does not call this, since the context rules are
+  * compiled into its BreakAutomaton, so overriding it has no effect.
+  * Extend the rules with BreakRules.extend and pass them to 
+  * MyanmarParser(BreakRules) instead.
+  */
+  @Deprecated
+  protected int evaluateContext(CharSequence text, int offset, int limit, 
+		  int langHint)
+  {
+    return evaluateContext(text.charAt(offset), text.charAt(offset + 1),
+    		(offset + 2 < limit)? text.charAt(offset + 2) : ' ',
+    		(offset + 3 < limit)? text.charAt(offset + 3) : ' ', langHint);
+  }
+  /**
+  * evaluates the context in place, where a simple pair approach is not
+  * enough. Characters at or beyond limit are treated as spaces.
+  * @param text
+  * @param offset index of the first character of the pair
+  * @param limit end of the text range (exclusive)
+  * @param langHint
+  * @return PAIR_* break status of specified offset in text
+  * @deprecated the parser does not call this, since the context rules are
+  * compiled into its BreakAutomaton, so overriding it has no effect.
+  * Extend the rules with BreakRules.extend and pass them to 
+  * MyanmarParser(BreakRules) instead.
+  */
+  @Deprecated
+  protected int evaluateContext(char [] text, int offset, int limit, 
+		  int langHint)
+  {
+    return evaluateContext(text[offset], text[offset + 1],
+    		(offset + 2 < limit)? text[offset + 2] : ' ',
+    		(offset + 3 < limit)? text[offset + 3] : ' ', langHint);
+  }
+  /**
+  * evaluates the context of a pair from the pair and the 2 characters 
+  * following it. These are the context rules of BreakRules.DEFAULT_RULES,
+  * the parsing methods use the rules compiled into a BreakAutomaton.
+  * @param c0 first character of the pair
+  * @param c1 second character of the pair
+  * @param c2 character after the pair
+  * @param c3 second character after the pair
+  * @param langHint
+  * @return PAIR_* break status between c0 and c1
+  */
+  static int evaluateContext(char c0, char c1, char c2, char c3, 
+		  int langHint)
+  {
     // deal with easy cases first
-    if (text[0] == 0x1021 && langHint == LANG_MY) return MyPairStatus.MY_PAIR_NO_BREAK;
+    if (c0 == 0x1021 && langHint == LANG_MY) return PAIR_NO_BREAK;
 
-    if (text[1] == 0x002d) return MyPairStatus.MY_PAIR_NO_BREAK;
-    if (text[1] == 0x103F) return MyPairStatus.MY_PAIR_NO_BREAK;
-    if (text[2] == 0x1037 && text[3] == 0x103A)
-    	return MyPairStatus.MY_PAIR_NO_BREAK;
-    if (text[2] == 0x1039)
+    if (c1 == 0x002d) return PAIR_NO_BREAK;
+    if (c1 == 0x103F) return PAIR_NO_BREAK;
+    if (c2 == 0x1037 && c3 == 0x103A)
+    	return PAIR_NO_BREAK;
+    if (c2 == 0x1039)
     {
-      return MyPairStatus.MY_PAIR_NO_BREAK;
+      return PAIR_NO_BREAK;
     }
-    else if (text[2] == 0x103A && langHint == LANG_MY)
+    else if (c2 == 0x103A && langHint == LANG_MY)
     {
       // Karen (and also some loan words in Myanmar) can have a starting 103A
-      return MyPairStatus.MY_PAIR_NO_BREAK;
+      return PAIR_NO_BREAK;
     }
     else
     {
-      return MyPairStatus.MY_PAIR_SYL_BREAK;
+      return PAIR_SYL_BREAK;
     }
   }
   /**
@@ -622,11 +1640,21 @@ public class MyanmarParser
   * @return break status code
   */
   protected static MyPairStatus getBreakStatus(char before, char after)
+  {
+	  return MyPairStatus.fromCode(getBreakStatusCode(before, after));
+  }
+  /**
+  * gets the break status of a pair of characters as a PAIR_* code
+  * @param before
+  * @param after
+  * @return break status code
+  */
+  static int getBreakStatusCode(char before, char after)
   {
 	  if (before == 0x2060 || after == 0x2060)
-		  return MyPairStatus.MY_PAIR_NO_BREAK;
-	  return MyPairStatus.values()[PAIR_TABLE[getCharClass(before).ordinal()]
-	                                         [getCharClass(after).ordinal()]];
+		  return PAIR_NO_BREAK;
+	  return PAIR_STATUS[(getCharClassCode(before) << PAIR_ROW_SHIFT) | 
+	                     getCharClassCode(after)];
   }
   /**
   * gets the character status of the given character
@@ -635,19 +1663,16 @@ public class MyanmarParser
   */
   protected static MySyllablePart getCharClass(char mmChar)
   {
-	  if (mmChar < 0x1000 || mmChar > 0x109F)
-	  {
-		  if (mmChar >= 0xAA60 && mmChar < 0xAA7C)
-		  {
-			  if (mmChar == 0xAA70)
-				  return MySyllablePart.MY_SYLLABLE_TONE;
-			  else if (mmChar == 0xAA7B)
-				  return MySyllablePart.MY_SYLLABLE_TONE;
-			  return MySyllablePart.MY_SYLLABLE_CONSONANT;
-		  }
-		  return MySyllablePart.MY_SYLLABLE_UNKNOWN;
-	  }
-	  return CHAR_PART[mmChar - 0x1000];
+	  return PARTS[getCharClassCode(mmChar)];
+  }
+  /**
+  * gets the MySyllablePart ordinal of the given character
+  * @param mmChar
+  * @return class code
+  */
+  static int getCharClassCode(char mmChar)
+  {
+	  return CharProperties.getSyllablePart(mmChar);
   }
   /**
    * Tests whether the character is exclusive to text using the Myanmar script.
@@ -658,7 +1683,8 @@ public class MyanmarParser
    */
   public boolean isMyanmarCharacter(char c)
   {
-	  if ((c >= 0x1000 && c <= 0x109f) || (c >= 0xaa60 && c <= 0xaa7f))
+	  if ((c >= 0x1000 && c <= 0x109f) || (c >= 0xaa60 && c <= 0xaa7f) ||
+	      (c >= 0xa9e0 && c <= 0xa9ff))
 	  {
 		  return true;
 	  }
@@ -686,7 +1712,7 @@ public class MyanmarParser
   /**
   * A class to hold properties of a cluster
   */
-  public class ClusterProperties
+  public static class ClusterProperties
   {
     int startIndex;
     int endIndex; //< one after last index in cluster
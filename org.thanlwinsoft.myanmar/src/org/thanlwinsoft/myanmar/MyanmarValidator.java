@@ -29,18 +29,28 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.StringReader;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Validate Myanmar text against encoding order specified by 
- * Unicode Technical Note 11
+ * Unicode Technical Note 11.
+ * The validate methods which do not take a session share one session, so
+ * they must only be used by one thread at a time. To validate from 
+ * several threads, share the validator and give each document its own
+ * session from newSession.
  * @author keith
  *
  */
@@ -57,6 +67,7 @@ public class MyanmarValidator implements Validator
 		Anusvara(16), PwoTone(17), 
 		LowerDot(18), MonH(19), VisibleVirama(20), Visarga(21),Reduplicator(22);
 
+        private static final UTN11 [] VALUES = values();
         int mSequenceId;
 
         UTN11(int seq)
@@ -66,133 +77,12 @@ public class MyanmarValidator implements Validator
 
         static UTN11 fromCode(char c)
         {
-            // deal with the ranges
-            if (c >= 0x1000 && c < 0x102B)
-                return Consonant;
-            if (c >= 0x105A && c < 0x105E)
-                return Consonant;
-            if (c >= 0x106E && c < 0x1071)
-                return Consonant;
-            if (c >= 0x1075 && c < 0x1082)
-                return Consonant;
-			if (c >= 0xAA60 && c < 0xAA70)
-				return Consonant;
-			if (c >= 0xAA71 && c < 0xAA77)
-				return Consonant;
-			if (c >= 0x1040 && c < 0x104A)
-                return Number;
-			if (c >= 0x1090 && c < 0x109A)
-                return Number;
-            switch (c)
-            {
-            case 0x103F:
-            case 0x104E:
-            case 0x1061:
-            case 0x1065:
-            case 0x1066:
-            case 0x108E:
-            //case 0x109F: // is this really a symbol, not if it takes visarga?
-            case 0x25CC:// special case for dotted circle
-                return Consonant;
-                /*
-            case 0x1022:
-            case 0x1023:
-            case 0x1024:
-            case 0x1025:
-            case 0x1026:
-            case 0x1027:
-            case 0x1028:
-            case 0x1029:
-            case 0x102A:*/
-            case 0x104A:
-            case 0x104B:
-            case 0x104C:
-            case 0x104D:
-            case 0x104F:
-            case 0x109E:
-            case 0x109F:
-                return Sign;
-            case 0x103A:
-                return Asat;// May also be Mon Asat or Visible Virama
-            case 0x1039:
-                return Stacker;
-            case 0x103B:
-            case 0x103C:
-            case 0x105E:
-            case 0x105F:
-                return MedialYR;
-            case 0x103D:
-            case 0x1082:
-                return MedialW;
-            case 0x103E:
-            case 0x1060:
-                return MedialH;// or MonH
-            case 0x1031:
-            case 0x1084:
-                return EVowel; // or Shan E Vowel
-            case 0x102D:
-            case 0x102E:
-            case 0x1032:
-            case 0x1033:
-            case 0x1034:
-            case 0x1035:
-            case 0x1036:
-            case 0x1071:
-            case 0x1072:
-            case 0x1073:
-            case 0x1074:
-            case 0x1085:
-            case 0x109D:
-                return UVowel;// may also be Anusvara for 1036,1032
-            case 0x102F:
-            case 0x1030:
-                return LVowel;
-            case 0x1062:
-            case 0x1037:
-            	return KarenVowel;// or lower dot
-            case 0x1086:
-            	return ShanVowel;
-            case 0x102B:
-            case 0x102C:
-            //case 0x1062:
-            case 0x1063:
-            case 0x1067:
-            case 0x1068:
-            case 0x1083:
-                return AVowel;
-            //case 0x1036:
-            //case 0x1032:
-            //    return Anusvara;
-            case 0x1064:// actually Sgaw
-            case 0x1069:
-            case 0x106A:
-            case 0x106B:
-            case 0x106C:
-            case 0x106D:
-            	return PwoTone;
-            //case 0x1037:
-            //    return LowerDot;
-            // case 0x103E:
-            //    return MonH;
-            // case 103A:
-            //    return VisibleVirama;
-            case 0x1038:
-            case 0x1087:
-            case 0x1088:
-            case 0x1089:
-            case 0x108A:
-            case 0x108B:
-            case 0x108C:
-            case 0x108D:
-            case 0x108F:
-            case 0x109A:
-            case 0x109B:
-            case 0x109C:
-                return Visarga;
-            case 0xAA70:
-            	return Reduplicator;
-            }
-            return Unknown;
+            return VALUES[CharProperties.getUtn11(c)];
+        }
+
+        static UTN11 fromProperties(int properties)
+        {
+            return VALUES[CharProperties.utn11(properties)];
         }
 
         public int getSequenceId()
@@ -201,37 +91,61 @@ public class MyanmarValidator implements Validator
         }
     }
 
-    private long mLine = 1;
-    private long mColumn = 0;
-    private long mTabWidth = 4;
-	private String mRef;
+    private volatile long mTabWidth;
     private static final String sEOL = System.getProperty("line.separator");
-    private long mErrorCount = 0;
+    private volatile ValidationListener [] mListeners = 
+        ValidationReporter.NONE;
+    // session used by the methods which do not take one
+    private final ValidationSession mSession;
 
     /**
      * constructor
      */
     public MyanmarValidator()
     {
-        sLogger.setLevel(Level.ALL);
+        this(4);
+    }
+
+    /**
+     * constructor
+     * @param tabWidth tab width
+     */
+    public MyanmarValidator(int tabWidth)
+    {
+        mTabWidth = tabWidth;
+        mSession = new ValidationSession(this, tabWidth, null, mListeners);
+    }
+
+    /**
+     * Creates a session to validate one document, which holds the line,
+     * column and error count. Sessions on the same validator may be used
+     * from different threads at the same time.
+     * @param ref reference passed to validation events, e.g. a file name,
+     * may be null
+     * @return new ValidationSession
+     */
+    public ValidationSession newSession(String ref)
+    {
+        return new ValidationSession(this, mTabWidth, ref, mListeners);
     }
 
     /**
-     * tab width
+     * tab width of the shared session and of sessions created after this 
+     * call. To share a validator between threads pass the tab width to the
+     * constructor instead.
      * @param w
      */
     public void setTabWidth(int w)
     {
         mTabWidth = w;
+        mSession.mTabWidth = w;
     }
     /**
      * reset line, col number
      */
     public void reset()
     {
-        mLine = 1;
-        mColumn = 0;
-        mErrorCount = 0;
+        mSession.reset();
     }
     /**
      * 
@@ -239,7 +153,7 @@ public class MyanmarValidator implements Validator
      */
     public long getLineNumber()
     {
-        return mLine;
+        return mSession.getLineNumber();
     };
     /**
      * 
@@ -247,7 +161,7 @@ public class MyanmarValidator implements Validator
      */
     public long getColumn()
     {
-        return mColumn;
+        return mSession.getColumn();
     }
 
     /**
@@ -256,39 +170,47 @@ public class MyanmarValidator implements Validator
      */
     public long getErrorCount()
     {
-    	return mErrorCount;
+    	return mSession.getErrorCount();
     }
 	/**
-	 * set a reference to assist interpretation of logs
+	 * set a reference to assist interpretation of logs, use newSession to
+	 * set one for each document instead
 	 * @param ref
 	 */
 	public void setRef(String ref)
 	{
-		mRef = ref;
-	}
-	
-	protected void logFine(String msg, Deque<Character> utn11Queue)
-	{
-	    sLogger.fine(msg + " " + 
-                mRef + " Ln " + mLine + " Col " + 
-                (mColumn - utn11Queue.size()) + "," +
-                mColumn + " " + dumpQueue(utn11Queue));
+		mSession.mRef = ref;
 	}
-	protected void logWarning(String msg, Deque<Character> utn11Queue)
+
+    /**
+     * Adds a listener for the problems found during validation, e.g. a
+     * LoggingValidationListener, to the shared session and to sessions 
+     * created after this call
+     * @param listener
+     */
+    public void addValidationListener(ValidationListener listener)
     {
-        sLogger.warning(msg + " " + 
-                mRef + " Ln " + mLine + " Col " + 
-                (mColumn - utn11Queue.size()) + "," +
-                mColumn + " " + dumpQueue(utn11Queue));
+        mListeners = ValidationReporter.add(mListeners, listener);
+        mSession.addValidationListener(listener);
     }
 
-    protected void logInfo(String msg, Deque<Character> utn11Queue)
+    /**
+     * Removes a listener added with addValidationListener
+     * @param listener
+     */
+    public void removeValidationListener(ValidationListener listener)
     {
-    	sLogger.info(msg + " " +
-                mRef + " Ln " + mLine + " Col " + 
-                (mColumn - utn11Queue.size()) + "," +
-                mColumn + " " + dumpQueue(utn11Queue));
-	}
+        mListeners = ValidationReporter.remove(mListeners, listener);
+        mSession.removeValidationListener(listener);
+    }
+
+    private static void report(ValidationSession session, 
+                               ValidationRule rule, Utn11Queue utn11Queue)
+    {
+        if (session.mReporter.isActive())
+            session.mReporter.report(rule, session.mRef, session.mLine, 
+                                     session.mColumn, utn11Queue, true);
+    }
 
     /**
      * 
@@ -297,83 +219,168 @@ public class MyanmarValidator implements Validator
      * @return validation status
      */
     public Status validate(String input, StringBuilder builder)
-    	{
-    		BufferedReader r = new BufferedReader(new StringReader(input));
-    		BufferedWriter w = new BufferedWriter(new StringWriter());
-    		Status s = validate(r, w);
-    		if (builder != null) builder.append(w.toString());
-    		return s;
-    	}
+    {
+        return mSession.validate(input, builder);
+    }
+
     /** validate text from specified reader
      * 
      */
     public Status validate(BufferedReader r, BufferedWriter w)
     {
-        Deque<Character> utn11Queue = new ArrayDeque<Character>(UTN11.Reduplicator
-                .getSequenceId());
-        Status valid = Status.Valid;
-		boolean badPrefix = false;
-		UTN11 seq = UTN11.Unknown;
+        return mSession.validate(r, w);
+    }
+
+    /**
+     * Validates a range of a text, such as a String or CharBuffer, and 
+     * appends the validated text to output.
+     * @param input text to validate
+     * @param start first index of the range
+     * @param limit end of the range (exclusive)
+     * @param output receives the validated text, e.g. a StringBuilder, 
+     * CharBuffer or Writer
+     * @return validation status
+     * @throws IOException if output throws
+     */
+    public Status validate(CharSequence input, int start, int limit, 
+                           Appendable output) throws IOException
+    {
+        return mSession.validate(input, start, limit, output);
+    }
+
+    /**
+     * Validates a range of a char array and appends the validated text to
+     * output.
+     * @param input text to validate
+     * @param start first index of the range
+     * @param limit end of the range (exclusive)
+     * @param output receives the validated text
+     * @return validation status
+     * @throws IOException if output throws
+     */
+    public Status validate(char [] input, int start, int limit, 
+                           Appendable output) throws IOException
+    {
+        return mSession.validate(input, start, limit, output);
+    }
+
+    /**
+     * Starts validating a text in a session
+     */
+    void begin(ValidationSession session)
+    {
+        session.mQueue.clear();
+        session.mStatus = Status.Valid;
+        session.mBadPrefix = false;
+        session.mSeq = UTN11.Unknown;
+        session.mReporter.clear();
+    }
+
+    /**
+     * Writes the last syllable of a text validated in a session
+     */
+    void end(ValidationSession session, Appendable w) throws IOException
+    {
+        if (session.mReporter.isActive()) 
+            session.mReporter.read((char) 0, session.mColumn);
+        if (session.mQueue.size() > 0)
+            session.mStatus = writeQueue(session, session.mQueue, w, 
+                                         session.mStatus);
+    }
+
+    /**
+     * @return true if c is not Myanmar and does not change the line or
+     * tab column
+     */
+    private static boolean isPlain(char c)
+    {
+        return c != '\t' && c != sEOL.charAt(sEOL.length() - 1) &&
+            UTN11.fromCode(c) == UTN11.Unknown;
+    }
+
+    /**
+     * Validates a block of text, the state of the syllable being validated
+     * is kept in the session between blocks.
+     */
+    void validateBlock(ValidationSession session, CharSequence text, 
+                       int start, int limit, Appendable w) throws IOException
+    {
+        Utn11Queue utn11Queue = session.mQueue;
+        Status valid = session.mStatus;
+        boolean badPrefix = session.mBadPrefix;
+        UTN11 seq = session.mSeq;
+        ValidationReporter reporter = session.mReporter;
+        boolean reporting = reporter.isActive();
         try
         {
-            do
+            for (int i = start; i < limit; i++)
             {
-                try
-                {
-                    int utf32 = r.read();
-                    if (utf32 < 0)
-                        break; // end
-                    char[] utf16 = Character.toChars(utf32);
-                    if (utf16[0] == (char) '\t')
+                    char utf16 = text.charAt(i);
+                    if (utf16 == (char) '\t')
                     {
-                        mColumn += mTabWidth;
-                        long overshoot = mColumn % mTabWidth;
-                        mColumn -= overshoot;
+                        session.mColumn += session.mTabWidth;
+                        long overshoot = session.mColumn % session.mTabWidth;
+                        session.mColumn -= overshoot;
                     }
                     else
-                        mColumn += utf16.length;
+                        session.mColumn++;
 					// surrogate pairs can't be Myanmar
-                    if (utf16.length > 1)
+                    if (Character.isSurrogate(utf16))
                     {
-                        valid = writeQueue(utn11Queue, w, valid);
-                        w.write(utf16);
+                        seq = UTN11.Unknown;
+                        if (reporting) reporter.read((char) 0, session.mColumn);
+                        valid = writeQueue(session, utn11Queue, w, valid);
+                        w.append(utf16);
                     }
                     else
                     {
                         // approx count lines
-                        if (utf16[0] == sEOL.charAt(sEOL.length() - 1))
+                        if (utf16 == sEOL.charAt(sEOL.length() - 1))
                         {
                             if (badPrefix)
                             {
-                            	logWarning("Bad prefix at: ", utn11Queue);
+                            	report(session, ValidationRule.BAD_PREFIX,
+                            	        utn11Queue);
                             	badPrefix = false;
                             }
-                            mLine++;
-                            mColumn = 0;
+                            session.mLine++;
+                            session.mColumn = 0;
                         }
                         UTN11 prevSeq = seq;
-                        seq = UTN11.fromCode(utf16[0]);
+                        seq = UTN11.fromCode(utf16);
+                        if (reporting) 
+                            reporter.read((seq == UTN11.Unknown)? 0 : utf16,
+                                          session.mColumn);
                         if (seq == UTN11.Unknown)// not Myanmar
                         {
-                            valid = writeQueue(utn11Queue, w, valid);
-                            w.write(utf16);
+                            valid = writeQueue(session, utn11Queue, w, valid);
+                            // copy the following characters in bulk if they are 
+                            // not Myanmar either and do not start a line or tab
+                            int plainEnd = i + 1;
+                            while (plainEnd < limit && 
+                                   isPlain(text.charAt(plainEnd)))
+                                plainEnd++;
+                            session.mColumn += plainEnd - i - 1;
+                            w.append(text, i, plainEnd);
+                            i = plainEnd - 1;
                             continue;
                         }
                         // if there is no stack, just add it and loop, normally
                         // this will only occur for consonants
                         if (utn11Queue.size() == 0)
                         {
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
 							if (seq.getSequenceId() > UTN11.Consonant.getSequenceId())
 							{
-								if (utf16[0] == '\u1031' || utf16[0] == '\u103C')
+    							if (utf16 == '\u1031' || utf16 == '\u103C')
 									badPrefix = true;
 								else
 								{
-									logWarning("Unexpected sequence at: ", utn11Queue);
+    								report(session, ValidationRule.UNEXPECTED_SEQUENCE,
+    								        utn11Queue);
 									if (valid == Status.Valid)
 		                                valid = Status.Invalid;
-									mErrorCount++;
+    								session.mErrorCount++;
 								}
 							}
                             continue;
@@ -382,8 +389,8 @@ public class MyanmarValidator implements Validator
 						{
 							if (seq == UTN11.Number)
 							{
-								valid = writeQueue(utn11Queue, w, valid);
-								utn11Queue.push(utf16[0]);
+    							valid = writeQueue(session, utn11Queue, w, valid);
+    							utn11Queue.push(utf16);
 								continue;
 							}
 							// This isn't 100% reliable, there could be 
@@ -399,49 +406,52 @@ public class MyanmarValidator implements Validator
 								}
 								else
 								{
-									logFine("Corrected wa at: ", utn11Queue);
 									utn11Queue.push('\u101D');
+    								report(session, ValidationRule.ZERO_WA,
+    								        utn11Queue);
 									if (valid == Status.Valid)
 		                                valid = Status.Corrected;
-									mErrorCount++;									
+    								session.mErrorCount++;									
 								}
 							}
-							if (utn11Queue.peek() == '\u1044' && utf16[0] == '\u1004')
+    						if (utn11Queue.peek() == '\u1044' && utf16 == '\u1004')
 							{
-							    utn11Queue.push(utf16[0]);
+    						    utn11Queue.push(utf16);
                                 continue;
 							}
 							if (seq == UTN11.Consonant)
 	                        {
-	                            valid = writeQueue(utn11Queue, w, valid);
-	                            utn11Queue.push(utf16[0]);
+                                valid = writeQueue(session, utn11Queue, w, valid);
+                                utn11Queue.push(utf16);
 	                            continue;
 	                        }
-							utn11Queue.push(utf16[0]);
+    						utn11Queue.push(utf16);
 							continue;
 						}
 						if (utn11Queue.peek() == '\u1025')
 						{
-						    if (utf16[0] == '\u103A' || utf16[0] == '\u1039' || utf16[0] == '\u102C')
+    					    if (utf16 == '\u103A' || utf16 == '\u1039' || utf16 == '\u102C')
                             {
                                 // should be 1009
                                 utn11Queue.pop();
                                 utn11Queue.push('\u1009');
-                                utn11Queue.push(utf16[0]);
+                                utn11Queue.push(utf16);
                                 if (valid == Status.Valid)
                                     valid = Status.Corrected;
-                                mErrorCount++;
-                                logFine("Corrected U+1025 at: ", utn11Queue);
+                                session.mErrorCount++;
+                                report(session, ValidationRule.U1025_NYA,
+                                        utn11Queue);
                                 continue;
                             }
-                            if (utf16[0] == '\u102E')
+                            if (utf16 == '\u102E')
                             {
                                 utn11Queue.pop();
                                 utn11Queue.push('\u1026');
-                                logFine("U+1025 U+102E -> U+1026 ", utn11Queue);
+                                report(session, ValidationRule.U1025_U102E,
+                                        utn11Queue);
                                 if (valid == Status.Valid)
                                     valid = Status.Corrected;
-                                mErrorCount++;
+                                session.mErrorCount++;
                                 continue;
                             }
 						}
@@ -449,17 +459,20 @@ public class MyanmarValidator implements Validator
 						if (seq == UTN11.Stacker && prevSeq == UTN11.Asat)
 						{
 							seq = UTN11.Kinzi;
-							utn11Queue.push(utf16[0]);
+    						utn11Queue.push(utf16);
 							continue;
 						}
 						if (prevSeq == UTN11.Kinzi && seq != UTN11.Consonant)
 						{
 							// misplaced Kinzi
 							valid = Status.Invalid;
-							utn11Queue.push(utf16[0]);
-							logWarning("Misplaced Kinzi ", utn11Queue);
-							writeQueue(utn11Queue, w, valid);
-							mErrorCount++;
+    						utn11Queue.push(utf16);
+    						report(session, ValidationRule.MISPLACED_KINZI,
+    						        utn11Queue);
+    						// the character read belongs to the syllable written
+    						if (reporting) reporter.read((char) 0, session.mColumn);
+    						writeQueue(session, utn11Queue, w, valid);
+    						session.mErrorCount++;
 							continue;
 						}
 						// Now fix the ambiguous cases
@@ -470,16 +483,17 @@ public class MyanmarValidator implements Validator
                         {
                             if (prevSeq == UTN11.LVowel)
                             {
-                                Character lv = utn11Queue.pop();
-                                UTN11 prevClass = UTN11.fromCode(utn11Queue.peek());
+                                char lv = utn11Queue.pop();
+                                UTN11 prevClass = UTN11.fromProperties(utn11Queue.peekProperties());
                                 if (prevClass.getSequenceId() < UTN11.MonAsat.getSequenceId())
                                 {
-                                utn11Queue.push(utf16[0]);
+                                utn11Queue.push(utf16);
                                 utn11Queue.push(lv);
                                 if (valid == Status.Valid)
                                     valid = Status.Corrected;
-                                mErrorCount++;
-                                logFine("Corrected U+102F U+103A: ", utn11Queue);
+                                session.mErrorCount++;
+                                report(session, ValidationRule.LOWER_VOWEL_ASAT,
+                                        utn11Queue);
                                 continue;
                                 }
                                 else
@@ -491,10 +505,11 @@ public class MyanmarValidator implements Validator
                             if (prevSeq == UTN11.Asat)
                             {
                                 // duplicate asat
-                                logFine("Corrected duplicate U+103A", utn11Queue);
+                                report(session, ValidationRule.DUPLICATE_ASAT,
+                                        utn11Queue);
                                 if (valid == Status.Valid)
                                     valid = Status.Corrected;
-                                mErrorCount++;
+                                session.mErrorCount++;
                                 continue;
                             }
                             if (prevSeq == UTN11.MonH)
@@ -516,20 +531,21 @@ public class MyanmarValidator implements Validator
                             }
                         }
                         // Shan W or Mon H medial with asat - Asat constraint
-                        if (prevSeq == UTN11.Asat && (utf16[0] == 0x1082 ||
-                        		utf16[0] == 0x103E))
+                        if (prevSeq == UTN11.Asat && (utf16 == 0x1082 ||
+                        		utf16 == 0x103E))
                         {
                         	// this is invalid, but it can be corrected
                           char asat = utn11Queue.pop();
-                          UTN11 previousClass = UTN11.fromCode(utn11Queue.peek());
+                          UTN11 previousClass = UTN11.fromProperties(utn11Queue.peekProperties());
                           if (previousClass.getSequenceId() < UTN11.MedialW.getSequenceId())
                           {
                               if (valid == Status.Valid)
                                   valid = Status.Corrected;
-                            	mErrorCount++;
-                              utn11Queue.push(utf16[0]);
+                            	session.mErrorCount++;
+                              utn11Queue.push(utf16);
                               utn11Queue.push(asat);
-                              logFine("Changed order of asat/shan wa/1037: ", utn11Queue);
+                              report(session, ValidationRule.ASAT_MEDIAL_ORDER,
+                                      utn11Queue);
                             	seq = UTN11.MonAsat;
                             	continue;
                           }
@@ -541,18 +557,19 @@ public class MyanmarValidator implements Validator
                         // check for 1037 here, but older fonts 
                         // expect it unnormalized
                         if ((prevSeq == UTN11.VisibleVirama || prevSeq == UTN11.Asat)
-                        		&& utf16[0] == 0x1037)
+                        		&& utf16 == 0x1037)
                         {
                             char asat = utn11Queue.pop();
-                            UTN11 previousClass = UTN11.fromCode(utn11Queue.peek());
+                            UTN11 previousClass = UTN11.fromProperties(utn11Queue.peekProperties());
                             if (previousClass.getSequenceId() <= UTN11.AVowel.getSequenceId())
                             {
                               if (valid == Status.Valid)
                                   valid = Status.Corrected;
-                            	mErrorCount++;
-                              utn11Queue.push(utf16[0]);
+                            	session.mErrorCount++;
+                              utn11Queue.push(utf16);
                               utn11Queue.push(asat);
-                              logFine("Changed order of visible virama 1037: ", utn11Queue);
+                              report(session, ValidationRule.VIRAMA_DOT_ORDER,
+                                      utn11Queue);
                             	seq = UTN11.VisibleVirama;
                             	continue;
                             }
@@ -562,68 +579,72 @@ public class MyanmarValidator implements Validator
                             }
                         }
                         // Shan E constraint
-                        if (utf16[0] == 0x1031 && prevSeq == UTN11.EVowel)
+                        if (utf16 == 0x1031 && prevSeq == UTN11.EVowel)
                         	seq = UTN11.ShanE;
                         // Karen Vowel constraint
                         if (seq == UTN11.KarenVowel && prevSeq == UTN11.LVowel)
                         {
-                        	if (utf16[0] == 0x1037)
+                        	if (utf16 == 0x1037)
                         	{
                         		seq = UTN11.LowerDot;
                         	}
-                        	else if (utf16[0] == 0x1062)
+                        	else if (utf16 == 0x1062)
                         	{
                         		seq = UTN11.AVowel;
                         	}
                         	else
                         	{
                         		valid = Status.Invalid;
-                        		mErrorCount++;
-                        		utn11Queue.push(utf16[0]);
-                        		logWarning("Unexpected Karen Vowel at: ", utn11Queue);
+                        		session.mErrorCount++;
+                        		utn11Queue.push(utf16);
+                        		report(session, ValidationRule.UNEXPECTED_KAREN_VOWEL,
+                        		        utn11Queue);
                         		continue;
                         	}
                         }
                         // Mon Asat constraint
-                        if (utf16[0] == 0x1037 && prevSeq == UTN11.MonAsat)
+                        if (utf16 == 0x1037 && prevSeq == UTN11.MonAsat)
                         {
                         	valid = Status.Invalid;
-                    		mErrorCount++;
-                    		utn11Queue.push(utf16[0]);
-                    		logWarning("Invalid MonAsat position with 1037 at: ", utn11Queue);
+                    		session.mErrorCount++;
+                    		utn11Queue.push(utf16);
+                    		report(session, ValidationRule.MON_ASAT_DOT,
+                    		        utn11Queue);
                     		continue;
                         }
                         // second 1062
-                        if (utf16[0] == 0x1062 && prevSeq == UTN11.KarenVowel)
+                        if (utf16 == 0x1062 && prevSeq == UTN11.KarenVowel)
                         	seq = UTN11.AVowel;
                         // Anusvara Constraint
-                        if ((utf16[0] == 0x1032 || utf16[0] == 0x1036) &&
+                        if ((utf16 == 0x1032 || utf16 == 0x1036) &&
                         	(prevSeq == UTN11.LVowel || 
                         	 prevSeq == UTN11.AVowel || // note need a vowel here
                         	 utn11Queue.peek() == 0x1062 ||
                         	 utn11Queue.peek() == 0x102D ||
                         	 utn11Queue.peek() == 0x102E))
-//                       		prevSeq.getSequenceId() >= UTN11.UVowel.getSequenceId())
+    //                       		prevSeq.getSequenceId() >= UTN11.UVowel.getSequenceId())
                         {
                         	seq = UTN11.Anusvara;
                         }
                         // This constraint needs to be added to UTN11
                         if ((utn11Queue.peek() == 0x1032 || utn11Queue.peek() == 0x1036)
-                        	&& (utf16[0] == 0x1032 || utf16[0] == 0x1036 || utf16[0] == 0x1086))
+                        	&& (utf16 == 0x1032 || utf16 == 0x1036 || utf16 == 0x1086))
                         {
-                        	if (utn11Queue.peek() == utf16[0])
+                        	if (utn11Queue.peek() == utf16)
                         	{
                         		if (valid == Status.Valid)
                         			valid = Status.Corrected;
-                        		logFine("Corrected duplicate upper vowel at: ", utn11Queue);
+                        		report(session, ValidationRule.DUPLICATE_UPPER_VOWEL,
+                        		        utn11Queue);
                         	}
                         	else
                         	{
                         		valid = Status.Invalid;
-                        		utn11Queue.push(utf16[0]);
-                        		logWarning("Invalid at: ", utn11Queue);
+                        		utn11Queue.push(utf16);
+                        		report(session, ValidationRule.UPPER_VOWELS,
+                        		        utn11Queue);
                         	}
-                    		mErrorCount++;
+                    		session.mErrorCount++;
                     		continue;
                         }
                         // incorrect uvowel - Upper Vowel constraint
@@ -632,16 +653,16 @@ public class MyanmarValidator implements Validator
                         {
                         	// correct by swapping
                         	char c = utn11Queue.pop();
-                        	UTN11 previousClass = UTN11.fromCode(utn11Queue.peek());
+                        	UTN11 previousClass = UTN11.fromProperties(utn11Queue.peekProperties());
                         	if (previousClass.getSequenceId() < seq.getSequenceId())
                         	{
-                        	utn11Queue.push(utf16[0]);
+                        	utn11Queue.push(utf16);
                         	utn11Queue.push(c);
                         	seq = UTN11.Anusvara;
                         	if (valid == Status.Valid)
                                 valid = Status.Corrected;
-                        	mErrorCount++;
-						    logFine("Corrected anusvara lower vowel at: ", 
+                        	session.mErrorCount++;
+    					    report(session, ValidationRule.ANUSVARA_LOWER_VOWEL,
 						            utn11Queue);
                         	continue;
                         	}
@@ -653,15 +674,15 @@ public class MyanmarValidator implements Validator
                         	
                         }
                         // Lower Dot constraint what about 1086 here?
-                        if (utf16[0] == 0x1037 && (prevSeq == UTN11.LVowel ||
+                        if (utf16 == 0x1037 && (prevSeq == UTN11.LVowel ||
                         	prevSeq == UTN11.AVowel || prevSeq == UTN11.PwoTone
                         	|| prevSeq == UTN11.Anusvara || prevSeq == UTN11.ShanVowel))
-//                        	prevSeq.getSequenceId() >= UTN11.KarenVowel.getSequenceId())
+    //                        	prevSeq.getSequenceId() >= UTN11.KarenVowel.getSequenceId())
                         {
                         	seq = UTN11.LowerDot;
                         }
                         // Mon Ha Constraint
-                        if (utf16[0] == 0x103E && utn11Queue.peek() == '\u102C')
+                        if (utf16 == 0x103E && utn11Queue.peek() == '\u102C')
                         //prevSeq == UTN11.AVowel)
                         {
                         	seq = UTN11.MonH;
@@ -669,32 +690,34 @@ public class MyanmarValidator implements Validator
                         // UVowel Asat is a common typo, but technically allowed
                         if (prevSeq == UTN11.UVowel && seq == UTN11.VisibleVirama)
                         {
-                        	logWarning("Upper vowel, asat", utn11Queue);
+                        	report(session, ValidationRule.UPPER_VOWEL_ASAT,
+                        	        utn11Queue);
                         	valid = Status.Invalid;
-                        	mErrorCount++;
+                        	session.mErrorCount++;
                         }
                         // Visible Virama constraint
                         if (seq == UTN11.VisibleVirama && (prevSeq != UTN11.AVowel &&
                         	prevSeq != UTN11.PwoTone && prevSeq != UTN11.KarenVowel &&
                         	prevSeq != UTN11.LowerDot && prevSeq != UTN11.MonH))
                         {
-                        	logWarning("Unexpected Visible Virama", utn11Queue);
+                        	report(session, ValidationRule.UNEXPECTED_VISIBLE_VIRAMA,
+                        	        utn11Queue);
                         	valid = Status.Invalid;
-                        	mErrorCount++;
-                        	utn11Queue.push(utf16[0]);
+                        	session.mErrorCount++;
+                        	utn11Queue.push(utf16);
                             continue;
                         }
                         // Is it the next in the sequence within the syllable
                         // structure?
                         if (prevSeq.getSequenceId() < seq.getSequenceId())
                         {
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             continue;
                         }
                         if (seq == UTN11.Sign)
                         {
-                            valid = writeQueue(utn11Queue, w, valid);
-                            utn11Queue.push(utf16[0]);
+                            valid = writeQueue(session, utn11Queue, w, valid);
+                            utn11Queue.push(utf16);
                             continue;
                         }
                         // it should be a consonant starting a new syllable
@@ -707,7 +730,7 @@ public class MyanmarValidator implements Validator
 									char virama = utn11Queue.pop();
 									// checking the length should prevent this matching with a
 									// pali kinzi plus stack
-									if (utn11Queue.peek() == utf16[0] && utn11Queue.size() == 3)
+    								if (utn11Queue.peek() == utf16 && utn11Queue.size() == 3)
 									{
 										// the stack is identical to the previous one, this is
 										// almost certainly a double typing
@@ -717,14 +740,14 @@ public class MyanmarValidator implements Validator
 									else
 									{
 										utn11Queue.push(virama);
-										utn11Queue.push(utf16[0]);
-										logWarning("Syllable has multiple Pali stacks. Is this really correct? ",
-											utn11Queue);
+    									utn11Queue.push(utf16);
+    									report(session, ValidationRule.MULTIPLE_PALI_STACKS,
+    									        utn11Queue);
 									}
 								}
 								else
 								{
-									utn11Queue.push(utf16[0]);	
+    								utn11Queue.push(utf16);	
 								}
 							}
 							else
@@ -734,63 +757,66 @@ public class MyanmarValidator implements Validator
 								    if ((prevSeq == UTN11.MedialYR || 
                                     prevSeq == UTN11.EVowel))
 								    {
-    								    utn11Queue.addLast(utf16[0]);
+    								    utn11Queue.addLast(utf16);
     								    if (valid == Status.Valid)
     		                                valid = Status.Corrected;
-    								    mErrorCount++;
-    								    logFine("Corrected prefix sequence at: ", 
+    								    session.mErrorCount++;
+    								    report(session, ValidationRule.PREFIX_ORDER,
     								            utn11Queue);
     									badPrefix = false;
-    									seq = UTN11.fromCode(utn11Queue.peek());
+    									seq = UTN11.fromProperties(utn11Queue.peekProperties());
     									continue;
 								    }
 								    else
 								    {
-								        logWarning("Bad prefix at: ", utn11Queue);
+    							        report(session, ValidationRule.BAD_PREFIX,
+    							                utn11Queue);
 								    }
 								}
-								valid = writeQueue(utn11Queue, w, valid);
-	                            utn11Queue.push(utf16[0]);
+    							valid = writeQueue(session, utn11Queue, w, valid);
+                                utn11Queue.push(utf16);
 							}
 							badPrefix = false;
                             continue;
                         }
                         // E vowel, zero
-                        if (utf16[0] == '\u1040' && badPrefix &&
+                        if (utf16 == '\u1040' && badPrefix &&
                             (prevSeq == UTN11.EVowel || prevSeq == UTN11.MedialYR ))
                         {
                             if (valid == Status.Valid)
                                 valid = Status.Corrected;
-                            mErrorCount++;
+                            session.mErrorCount++;
                             utn11Queue.addLast('\u101D');
-                            logFine("Changed 0 to wa: ", utn11Queue);
+                            report(session, ValidationRule.PREFIX_ZERO_WA,
+                                    utn11Queue);
                             badPrefix = false;
                             continue;
                         }
                         // something has probably gone wrong
-						//if (utf16[0] == '\u1040')
+    					//if (utf16 == '\u1040')
 						if (seq == UTN11.Number)
 						{
 							//sLogger.fine("Corrected wa at: " + 
-							//	mRef + " Ln " + mLine + " Col " + 
-							//	(mColumn - utn11Queue.size()) + "," +
-							//	mColumn + " " + dumpQueue(utn11Queue));
-							valid = writeQueue(utn11Queue, w, valid);
+    						//	mRef + " Ln " + session.mLine + " Col " + 
+    						//	(session.mColumn - utn11Queue.size()) + "," +
+    						//	session.mColumn + " " + dumpQueue(utn11Queue));
+    						valid = writeQueue(session, utn11Queue, w, valid);
 							//utn11Queue.push('\u101D');
-							utn11Queue.push(utf16[0]);
+    						utn11Queue.push(utf16);
 							continue;
 						}
 						if (badPrefix && (prevSeq == UTN11.EVowel) && 
 						    (seq == UTN11.MedialYR))
 						{
 						    char eVowel = utn11Queue.pop();
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             utn11Queue.push(eVowel);
                             if (valid == Status.Valid)
                                 valid = Status.Corrected;
-                            mErrorCount++;
-                            logFine("Corrected e/medial ra: ", utn11Queue);
-                            seq = UTN11.fromCode(utn11Queue.peek());
+                            session.mErrorCount++;
+                            report(session, ValidationRule.E_MEDIAL_RA_ORDER,
+                                    utn11Queue);
+                            seq = UTN11.fromProperties(utn11Queue.peekProperties());
                             continue;
 						}
 						if ((utn11Queue.size() > 1) && (prevSeq == UTN11.EVowel) && 
@@ -798,16 +824,17 @@ public class MyanmarValidator implements Validator
 	                         (seq == UTN11.MedialH)))
 						{
 						    char eVowel = utn11Queue.pop();
-						    UTN11 beforeE = UTN11.fromCode(utn11Queue.peek());
+    					    UTN11 beforeE = UTN11.fromProperties(utn11Queue.peekProperties());
 						    if (beforeE.getSequenceId() < seq.getSequenceId())
 						    {
-						        utn11Queue.push(utf16[0]);
+    					        utn11Queue.push(utf16);
 	                            utn11Queue.push(eVowel);
 	                            if (valid == Status.Valid)
 	                                valid = Status.Corrected;
-	                            mErrorCount++;
-	                            logFine("Corrected e/medial: ",utn11Queue);
-	                            seq = UTN11.fromCode(utn11Queue.peek());
+                                session.mErrorCount++;
+                                report(session, ValidationRule.E_MEDIAL_ORDER,
+                                        utn11Queue);
+                                seq = UTN11.fromProperties(utn11Queue.peekProperties());
 	                            continue;
 						    }
 						    else // badly wrong, give up trying to correct
@@ -821,14 +848,14 @@ public class MyanmarValidator implements Validator
                         if (prevSeq == UTN11.LVowel && seq == UTN11.UVowel)
                         {
                             char lv = utn11Queue.pop();
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             utn11Queue.push(lv);
                             if (valid == Status.Valid)
                                 valid = Status.Corrected;
-                            mErrorCount++;
-                            logFine("Corrected at lower/upper vowel order: ", 
+                            session.mErrorCount++;
+                            report(session, ValidationRule.LOWER_UPPER_VOWEL_ORDER,
                                     utn11Queue);
-                            seq = UTN11.fromCode(utn11Queue.peek());
+                            seq = UTN11.fromProperties(utn11Queue.peekProperties());
                             continue;
                         }
                         if ((utn11Queue.peek() == 0x103D || utn11Queue.peek() == 0x103B) &&
@@ -836,14 +863,14 @@ public class MyanmarValidator implements Validator
                         {
                         	// contraction, swap the entries, asat should be 1st
                         	char lv = utn11Queue.pop();
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             utn11Queue.push(lv);
                             if (valid == Status.Valid)
                                 valid = Status.Corrected;
-                            mErrorCount++;
-                            logFine("Corrected contraction order: ", 
+                            session.mErrorCount++;
+                            report(session, ValidationRule.CONTRACTION_ORDER,
                                     utn11Queue);
-                            seq = UTN11.fromCode(utn11Queue.peek());
+                            seq = UTN11.fromProperties(utn11Queue.peekProperties());
                             continue;
                         }
                         if ((prevSeq == UTN11.ShanVowel || prevSeq == UTN11.UVowel) && 
@@ -851,17 +878,17 @@ public class MyanmarValidator implements Validator
                         	 || seq == UTN11.MedialH))
                         {
                         	char lv = utn11Queue.pop();
-                        	UTN11 previousClass = UTN11.fromCode(utn11Queue.peek());
+                        	UTN11 previousClass = UTN11.fromProperties(utn11Queue.peekProperties());
                         	if (previousClass.getSequenceId() < seq.getSequenceId())
                         	{
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             utn11Queue.push(lv);
                             if (valid == Status.Valid)
                                 valid = Status.Corrected;
-                            mErrorCount++;
-                            logFine("Corrected medial/upper or shan vowel order: ", 
+                            session.mErrorCount++;
+                            report(session, ValidationRule.MEDIAL_VOWEL_ORDER,
                                     utn11Queue);
-                            seq = UTN11.fromCode(utn11Queue.peek());
+                            seq = UTN11.fromProperties(utn11Queue.peekProperties());
                         	continue;
                         	}
                         	else
@@ -870,210 +897,318 @@ public class MyanmarValidator implements Validator
                         		utn11Queue.push(lv);
                         	}
                         }
-                        if (prevSeq == seq && utf16[0] == utn11Queue.peek())
+                        if (prevSeq == seq && utf16 == utn11Queue.peek())
                         {
                         	if (valid == Status.Valid)
                                 valid = Status.Corrected;
-                        	mErrorCount++;
-                        	logFine("Swallowed duplicate " + utf16[0] + 
-                        			": ", utn11Queue);
-                        	seq = UTN11.fromCode(utn11Queue.peek());
+                        	session.mErrorCount++;
+                        	report(session, ValidationRule.DUPLICATE, utn11Queue);
+                        	seq = UTN11.fromProperties(utn11Queue.peekProperties());
                         	continue;
                         }
                         if (seq == UTN11.Visarga && prevSeq == UTN11.Reduplicator)
                         {
                         	if (valid == Status.Valid)
                         		valid = Status.Corrected;
-                        	mErrorCount++;
+                        	session.mErrorCount++;
                         	char lv = utn11Queue.pop();
-                            utn11Queue.push(utf16[0]);
+                            utn11Queue.push(utf16);
                             utn11Queue.push(lv);
-                        	logFine("Corrected Reduplication Visarga", utn11Queue);
+                        	report(session, ValidationRule.REDUPLICATION_VISARGA,
+                        	        utn11Queue);
                         	seq = prevSeq;
                         	continue;
                         }
                         valid = Status.Invalid;
-                        mErrorCount++;
-                        utn11Queue.push(utf16[0]);
-                        logWarning("Invalid sequence at: ", utn11Queue);
+                        session.mErrorCount++;
+                        utn11Queue.push(utf16);
+                        report(session, ValidationRule.INVALID_SEQUENCE,
+                                utn11Queue);
                     }
-                }
-                catch (IOException e)
-                {
-                    break;
-                }
-            } while (true);
-            if (utn11Queue.size() > 0) valid = writeQueue(utn11Queue, w, valid);
-        }
-        catch (IOException e)
-        {
-            sLogger.severe(e.getMessage());
+            }
         }
         finally
         {
-
+            session.mStatus = valid;
+            session.mBadPrefix = badPrefix;
+            session.mSeq = seq;
         }
-        return valid;
     }
 
-	private Status writeQueue(Deque<Character> utn11Queue, BufferedWriter w,
-            Status status) throws IOException
+	private Status writeQueue(ValidationSession session, 
+	        Utn11Queue utn11Queue, Appendable w, Status status) 
+	        throws IOException
     {
         if (utn11Queue.size() > 0 && utn11Queue.peek() == 0x1039)
         {
             // stray 1039, should probably be 103A
             char virama = utn11Queue.pop();
-            UTN11 beforeViramaClass = UTN11.fromCode(utn11Queue.peek());
+            UTN11 beforeViramaClass = UTN11.fromProperties(utn11Queue.peekProperties());
             if (beforeViramaClass == UTN11.Consonant)
             {
-	            utn11Queue.push(Character.valueOf((char) 0x103A));
-	            sLogger.fine("Corrected 0x1039 at: Ln " + mLine + " Col "
-	                    + (mColumn - utn11Queue.size()) + "," + mColumn + " "
-	                    + dumpQueue(utn11Queue));
+	            utn11Queue.push((char) 0x103A);
+	            reportWritten(session, ValidationRule.STRAY_VIRAMA, utn11Queue);
 	            if (status == Status.Valid)
 	                status = Status.Corrected;
-	            mErrorCount++;
+	            session.mErrorCount++;
             }
             else
             {
-            	sLogger.warning("Unexpected virama at: Ln " + mLine + " Col " +
-            			(mColumn - utn11Queue.size()) + "," + mColumn + " "
-	                    + dumpQueue(utn11Queue));
             	utn11Queue.push(virama);
+            	reportWritten(session, ValidationRule.UNEXPECTED_VIRAMA,
+            	               utn11Queue);
             	status = Status.Invalid;
-            	mErrorCount++;
+            	session.mErrorCount++;
             }
         }
         // correct ၄င်း
         if (utn11Queue.size() == 4 && utn11Queue.peekLast() == '\u1044' && 
-            utn11Queue.peekFirst() == '\u1038')
+            utn11Queue.peek() == '\u1038')
         {
-            Character c = utn11Queue.removeLast();
+            char c = utn11Queue.removeLast();
             if (utn11Queue.peekLast() == '\u1004')
             {
-                w.write('\u104E');
+                utn11Queue.addLast('\u104E');
                 if (status == Status.Valid)
                     status = Status.Corrected;
-                mErrorCount++;
-                logFine("Corrected ၄င်း", utn11Queue);
+                session.mErrorCount++;
+                reportWritten(session, ValidationRule.DIGIT_FOUR, utn11Queue);
             }
-            else w.write(c);
+            else w.append(c);
         }
         // write the characters, starting with the oldest char on the stack
         while (utn11Queue.size() > 0)
         {
-            w.write(utn11Queue.removeLast());
+            w.append(utn11Queue.removeLast());
         }
+        session.mReporter.written();
         return status;
     }
 
-    private final String dumpQueue(Deque<Character> utn11Queue)
+    /**
+     * Reports a problem in a syllable as it is written, which does not 
+     * include the character being validated.
+     */
+    private static void reportWritten(ValidationSession session, 
+                                      ValidationRule rule, 
+                                      Utn11Queue utn11Queue)
     {
-        StringBuilder sb1 = new StringBuilder();
-        StringBuilder sb2 = new StringBuilder();
-        Iterator<Character> i = utn11Queue.iterator();
-        while (i.hasNext())
-        {
-            char c = i.next();
-            // iterating backwards from right to left
-            if (sb2.length() > 0)
-                sb2.insert(0, " ");
-            sb2.insert(0, Integer.toHexString(c));
-            sb2.insert(0, "0x");
-            sb1.insert(0, c);
-        }
-        sb2.append(" [").append(sb1).append("]");
-        return sb2.toString();
+        if (session.mReporter.isActive())
+            session.mReporter.report(rule, session.mRef, session.mLine, 
+                                     session.mColumn, utn11Queue, false);
     }
 
     /**
      * Command line
-     * @param arg input files, output file/dir
+     * @param arg [-t threads] input files, output file/dir
      */
     public static void main(String[] arg)
     {
-        if (arg.length < 2)
+        final String eol = System.getProperty("line.separator");
+        final String help = "Usage: MyanmarValidator [-t n] input output" + eol
+            + "       MyanmarValidator [-t n] input1 input2 ... outputDir" + eol
+            + "where:" + eol
+            + "  -t n validates n files at a time, largest first e.g. -t 4" + eol
+            + "  --   ends the options, before an input which starts with -";
+        int firstArg = 0;
+        int threads = 1;
+        // options stop at the first argument which is not an option or --
+        while (firstArg < arg.length && arg[firstArg].startsWith("-"))
+        {
+            if (arg[firstArg].equals("--"))
+            {
+                ++firstArg;
+                break;
+            }
+            if (arg[firstArg].equals("-t") && firstArg + 1 < arg.length)
+            {
+                try
+                {
+                    threads = Integer.parseInt(arg[++firstArg]);
+                }
+                catch (NumberFormatException e)
+                {
+                    threads = 0;
+                }
+            }
+            else threads = 0;
+            if (threads < 1)
+            {
+                System.err.println(help);
+                System.exit(1);
+            }
+            ++firstArg;
+        }
+        if (arg.length - firstArg < 2)
         {
-            System.err.println("Usage: MyanmarValidator input output");
-            System.err.println("       MyanmarValidator input1 input2 ... outputDir");
+            System.err.println(help);
             System.exit(1);
         }
-        BufferedReader br = null;
-        BufferedWriter bw = null;
 
         File outputDir = new File(arg[arg.length - 1]);
         if (!outputDir.isDirectory())
         {
-            if (arg.length > 2)
+            if (arg.length - firstArg > 2)
             {
                 System.err.println("Last argument should be a directory");
                 System.exit(2);
             }
             outputDir = null;
         }
-        for (int i = 0; i < arg.length - 1; i++)
+        File [][] files = new File[arg.length - 1 - firstArg][];
+        // inputs with the same name in different directories would be
+        // written to the same output file
+        Set<File> outputFiles = new HashSet<File>();
+        for (int i = firstArg; i < arg.length - 1; i++)
         {
             File inputFile = new File(arg[i]);
-            File outputFile = null;
-            try
+            File outputFile = (outputDir != null)? 
+                new File(outputDir, inputFile.getName()) :
+                new File(arg[arg.length - 1]);
+            if (inputFile.equals(outputFile))
             {
-                br = new BufferedReader(new InputStreamReader(
-                        new FileInputStream(inputFile), "UTF-8"));
-                if (outputDir != null)
-                {
-                    outputFile = new File(outputDir, inputFile.getName());
-                }
-                else
-                {
-                    assert (arg.length == 2);
-                    outputFile = new File(arg[arg.length - 1]);
-                }
-                if (inputFile.equals(outputFile))
+                System.err.println("input/output can't be the same file!");
+                System.exit(3);
+            }
+            if (!outputFiles.add(outputFile))
+            {
+                System.err.println("More than one input would be written to " +
+                                   outputFile);
+                System.exit(3);
+            }
+            files[i - firstArg] = new File[] { inputFile, outputFile };
+        }
+        // start the largest files first, so a large file at the end of the
+        // list does not leave the other threads idle. The lengths are read
+        // once, so the order stays consistent if a file changes meanwhile.
+        final long [] lengths = new long[files.length];
+        Integer [] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++)
+        {
+            lengths[i] = files[i][0].length();
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>()
+        {
+            public int compare(Integer a, Integer b)
+            {
+                return Long.compare(lengths[b], lengths[a]);
+            }
+        });
+
+        final MyanmarValidator validator = new MyanmarValidator(
+            System.getProperty("os.name").equals("Linux")? 8 : 4);
+        validator.addValidationListener(new LoggingValidationListener(sLogger));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Status>> results = new ArrayList<Future<Status>>();
+        long startTime = System.nanoTime();
+        long totalBytes = 0;
+        for (int i : order)
+        {
+            final File [] file = files[i];
+            totalBytes += lengths[i];
+            results.add(executor.submit(new Callable<Status>()
+            {
+                public Status call()
                 {
-                    System.err.println("input/output can't be the same file!");
-                    System.exit(3);
+                    ValidationSession session = 
+                        validator.newSession(file[0].getName());
+                    Status status = validateFile(session, file[0], file[1]);
+                    System.out.println(file[0].getPath() + " " + 
+                        ((status != null)? status : "Failed") + " errors " +
+                        session.getErrorCount());
+                    return status;
                 }
-                bw = new BufferedWriter(new OutputStreamWriter(
-                        new FileOutputStream(outputFile), "UTF-8"));
-
-                MyanmarValidator validator = new MyanmarValidator();
-                if (System.getProperty("os.name").equals("Linux"))
-                    validator.setTabWidth(8);
-				validator.setRef(inputFile.getName());
-                Status status = validator.validate(br, bw);
-                if (status != Status.Valid)
-                    sLogger.info(arg[i] + " Validation state: " + status);
+            }));
+        }
+        executor.shutdown();
+        int [] counts = new int[Status.values().length];
+        int failed = 0;
+        for (Future<Status> result : results)
+        {
+            Status status = null;
+            try
+            {
+                status = result.get();
             }
-            catch (FileNotFoundException e)
+            catch (InterruptedException e)
             {
                 sLogger.log(Level.SEVERE, e.getMessage(), e);
             }
-            catch (UnsupportedEncodingException e)
+            catch (ExecutionException e)
+            {
+                sLogger.log(Level.SEVERE, e.getMessage(), e.getCause());
+            }
+            if (status == null)
+                failed++;
+            else
+                counts[status.ordinal()]++;
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        StringBuilder summary = new StringBuilder();
+        for (Status status : Status.values())
+        {
+            summary.append(status).append(' ')
+                .append(counts[status.ordinal()]).append(' ');
+        }
+        if (failed > 0)
+            summary.append("Failed ").append(failed).append(' ');
+        summary.append(totalBytes).append(" bytes ")
+            .append(String.format("%.2f MB/s", 
+                    totalBytes / (1024.0 * 1024.0) / Math.max(seconds, 1e-9)));
+        System.out.println(summary);
+        System.exit((failed > 0)? 4 : 0);
+    }
+
+    /**
+     * Validates a UTF-8 file
+     * @param session session for the file
+     * @param inputFile
+     * @param outputFile
+     * @return validation status or null if a file could not be opened
+     */
+    private static Status validateFile(ValidationSession session, 
+                                       File inputFile, File outputFile)
+    {
+        BufferedReader br = null;
+        BufferedWriter bw = null;
+        try
+        {
+            br = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(inputFile), "UTF-8"));
+            bw = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(outputFile), "UTF-8"));
+            return session.validate(br, bw);
+        }
+        catch (FileNotFoundException e)
+        {
+            sLogger.log(Level.SEVERE, e.getMessage(), e);
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            sLogger.log(Level.SEVERE, e.getMessage(), e);
+        }
+        finally
+        {
+            try
+            {
+                if (br != null)
+                    br.close();
+            }
+            catch (IOException e)
             {
                 sLogger.log(Level.SEVERE, e.getMessage(), e);
             }
-            finally
+            try
             {
-                try
-                {
-                    if (br != null)
-                        br.close();
-                }
-                catch (IOException e)
-                {
-                    sLogger.log(Level.SEVERE, e.getMessage(), e);
-                }
-                try
-                {
-                    if (bw != null)
-                        bw.close();
-                }
-                catch (IOException e)
-                {
-                    sLogger.log(Level.SEVERE, e.getMessage(), e);
-                }
+                if (bw != null)
+                    bw.close();
+            }
+            catch (IOException e)
+            {
+                sLogger.log(Level.SEVERE, e.getMessage(), e);
             }
         }
-        System.exit(0);
+        return null;
     }
 }
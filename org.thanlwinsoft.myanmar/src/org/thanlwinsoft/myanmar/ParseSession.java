@@ -0,0 +1,336 @@
+/*
+ * Title: ParseSession
+ * Description: Syllable based Myanmar Parser session for a single text
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.thanlwinsoft.myanmar.MyanmarParser.ClusterProperties;
+import org.thanlwinsoft.myanmar.MyanmarParser.MyPairStatus;
+
+/**
+ * Parses a single text with a MyanmarParser. The language hint is guessed
+ * once when the session is created and then reused for every syllable, 
+ * so parsing a whole text is linear in its length.
+ * The text may be any CharSequence or a range of a char array and is 
+ * parsed in place without being copied.
+ * Create sessions with MyanmarParser.newSession.
+ */
+public class ParseSession
+{
+    private final MyanmarParser mParser;
+    private final CharSequence mText;
+    private final char [] mArray;
+    private final int mStart;
+    private final int mLimit;
+    private final int mLanguage;
+
+    ParseSession(MyanmarParser parser, CharSequence text, char [] array,
+                 int start, int limit)
+    {
+        mParser = parser;
+        mText = text;
+        mArray = array;
+        mStart = start;
+        mLimit = limit;
+        if (array == null)
+            mLanguage = parser.guessLanguage(text, start, limit);
+        else
+            mLanguage = parser.guessLanguage(array, start, limit);
+    }
+
+    /**
+     * 
+     * @return text being parsed, or null if the session is parsing a char
+     * array
+     */
+    public CharSequence getText()
+    {
+        return mText;
+    }
+
+    /**
+     * 
+     * @return first index of the text range being parsed
+     */
+    public int getStart()
+    {
+        return mStart;
+    }
+
+    /**
+     * 
+     * @return end of the text range being parsed (exclusive)
+     */
+    public int getLimit()
+    {
+        return mLimit;
+    }
+
+    /**
+     * 
+     * @return LANG_* language hint used for the text
+     */
+    public int getLanguage()
+    {
+        return mLanguage;
+    }
+
+    /**
+     * Creates a cursor positioned before the first syllable of the text.
+     * @return new SyllableCursor
+     */
+    public SyllableCursor cursor()
+    {
+        return new SyllableCursor(this);
+    }
+
+    /**
+     * Creates a spliterator over every syllable of the text, which may be
+     * split at syllable boundaries to segment the text in parallel.
+     * @return new Spliterator
+     */
+    public Spliterator<Syllable> spliterator()
+    {
+        return new SyllableSpliterator(this, mStart, mLimit);
+    }
+
+    /**
+     * Creates a stream of every syllable of the text. A parallel stream 
+     * gives the same syllables in the same order as a sequential one.
+     * @param parallel true for a parallel stream
+     * @return new Stream
+     */
+    public Stream<Syllable> stream(boolean parallel)
+    {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+    /**
+     * Finds the next syllable starting at a given offset.
+     * @param offset index to start search
+     * @return ClusterProperties or null if offset is at the end of the text
+     */
+    public ClusterProperties getNextSyllable(int offset)
+    {
+        if (offset >= mLimit) return null;
+        long syllable = nextSyllable(offset);
+        return new ClusterProperties(offset, 
+                MyanmarParser.syllableEnd(syllable),
+                MyPairStatus.fromCode(MyanmarParser.syllableStatus(syllable)));
+    }
+
+    /**
+     * Primitive form of getNextSyllable, which does not allocate.
+     * The offset must be less than the limit.
+     * @param offset index to start search
+     * @return packed end and status, see MyanmarParser.syllableEnd and
+     * MyanmarParser.syllableStatus
+     */
+    public long nextSyllable(int offset)
+    {
+        if (mArray != null)
+            return mParser.nextSyllable(mArray, offset, mLimit, mLanguage);
+        return mParser.nextSyllable(mText, offset, mLimit, mLanguage);
+    }
+
+    /**
+     * Finds the syllable boundary preceding offset by scanning backwards.
+     * @param offset index to search backwards from
+     * @return the largest boundary less than offset or the start of the 
+     * text if there is none
+     */
+    public int prevSyllable(int offset)
+    {
+        if (mArray != null)
+            return mParser.prevSyllable(mArray, mStart, offset, mLimit, 
+                                        mLanguage);
+        return mParser.prevSyllable(mText, mStart, offset, mLimit, mLanguage);
+    }
+
+    /**
+     * Finds the line break opportunity preceding offset by scanning 
+     * backwards.
+     * @param offset index to search backwards from
+     * @return the largest line break less than offset or the start of the
+     * text if there is none
+     */
+    public int prevLineBreak(int offset)
+    {
+        if (mArray != null)
+            return mParser.prevLineBreak(mArray, mStart, offset, mLimit, 
+                                         mLanguage);
+        return mParser.prevLineBreak(mText, mStart, offset, mLimit, 
+                                     mLanguage);
+    }
+
+    /**
+     * Finds the syllable which contains offset without scanning from the 
+     * start of the text.
+     * @param offset index of a character in the text
+     * @return ClusterProperties or null if offset is at the end of the text
+     */
+    public ClusterProperties getSyllableAt(int offset)
+    {
+        if (offset >= mLimit) return null;
+        return getNextSyllable(prevSyllable(offset + 1));
+    }
+
+    /**
+     * Finds successive syllables from offset and stores their end offsets 
+     * and PAIR_* status codes in caller supplied arrays.
+     * @param offset index to start segmentation
+     * @param ends receives the end index of each syllable
+     * @param statuses receives the break status at the end of each 
+     * syllable
+     * @return number of syllables stored, if the arrays fill up call again
+     * with offset = ends[count - 1] to continue
+     */
+    public int segment(int offset, int [] ends, byte [] statuses)
+    {
+        if (mArray != null)
+            return mParser.segment(mArray, offset, mLimit, mLanguage, ends,
+                                   statuses);
+        return mParser.segment(mText, offset, mLimit, mLanguage, ends, 
+                               statuses);
+    }
+
+    /**
+     * Segments like segment(int, int[], byte[]), but guesses the language
+     * of each word of the text as it is reached instead of using the
+     * session language, so a word or quotation in another language does 
+     * not change how the rest of the text is segmented.
+     * @param offset index to start segmentation
+     * @param ends receives the end index of each syllable
+     * @param statuses receives the break status at the end of each
+     * syllable
+     * @param languages receives the LANG_* value of each syllable
+     * @return number of syllables stored, if the arrays fill up call again
+     * with offset = ends[count - 1] to continue
+     */
+    public int segmentRuns(int offset, int [] ends, byte [] statuses,
+                           byte [] languages)
+    {
+        if (mArray != null)
+            return mParser.segmentRuns(mArray, mStart, offset, mLimit, ends,
+                                       statuses, languages);
+        return mParser.segmentRuns(mText, mStart, offset, mLimit, ends,
+                                   statuses, languages);
+    }
+
+    /**
+     * Finds every syllable boundary from offset to the end of the text.
+     * @param offset index to start segmentation
+     * @param boundaries reusable result, which is cleared first
+     * @return boundaries
+     */
+    public SyllableBoundaries segment(int offset, SyllableBoundaries boundaries)
+    {
+        boundaries.reset(offset);
+        while (offset < mLimit)
+        {
+            long syllable = nextSyllable(offset);
+            offset = MyanmarParser.syllableEnd(syllable);
+            boundaries.add(offset, MyanmarParser.syllableStatus(syllable));
+        }
+        return boundaries;
+    }
+
+    /**
+     * Finds the next line break point starting at a given offset.
+     * @param offset index to start search
+     * @return ClusterProperties or null if offset is at the end of the text
+     */
+    public ClusterProperties getNextLineBreak(int offset)
+    {
+        int i = offset;
+        int status = MyanmarParser.PAIR_NO_BREAK;
+        if (offset >= mLimit) return null;
+        do
+        {
+            long syllable = nextSyllable(i);
+            i = MyanmarParser.syllableEnd(syllable);
+            status = MyanmarParser.syllableStatus(syllable);
+        } while (!MyanmarParser.isLineBreakCode(status) && i < mLimit);
+        return new ClusterProperties(offset, i, 
+                MyPairStatus.fromCode(status));
+    }
+
+    /**
+     * Segments the text and checks it for illegal pairs in one pass.
+     * @param offset index to start segmentation
+     * @param result reusable result, which is cleared first
+     * @return result
+     */
+    public SegmentResult check(int offset, SegmentResult result)
+    {
+        result.reset(offset, mLanguage);
+        while (offset < mLimit)
+        {
+            long syllable = nextSyllable(offset);
+            offset = MyanmarParser.syllableEnd(syllable);
+            result.add(offset, MyanmarParser.syllableStatus(syllable));
+        }
+        return result;
+    }
+
+    /**
+     * Checks for incorrect sequences of Myanmar characters
+     * @param offset index to start search
+     * @return true if no illegal sequence was found
+     */
+    public boolean isValidMyanmar(int offset)
+    {
+        int i = offset;
+        while (i < mLimit)
+        {
+            long syllable = nextSyllable(i);
+            if (MyanmarParser.syllableStatus(syllable) == 
+                MyanmarParser.PAIR_ILLEGAL)
+                return false;
+            i = MyanmarParser.syllableEnd(syllable);
+        }
+        return true;
+    }
+
+    /**
+     * Checks for incorrect sequences of Myanmar characters
+     * @param offset index to start search
+     * @return array of erroneous clusters or null if there are none
+     */
+    public ClusterProperties [] checkMyanmar(int offset)
+    {
+        if (offset >= mLimit) return null;
+        return check(offset, new SegmentResult()).getErrorClusters();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Title: SegmentResult
+ * Description: Boundaries and errors found in one pass over a text
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.thanlwinsoft.myanmar.MyanmarParser.ClusterProperties;
+import org.thanlwinsoft.myanmar.MyanmarParser.MyPairStatus;
+
+/**
+ * Result of segmenting and checking a text in one pass, which holds the 
+ * syllable boundaries, the offsets of illegal pairs, the language hint 
+ * and the number of syllables ending with each break status. An instance
+ * can be reused for many texts like SyllableBoundaries.
+ * Fill it with ParseSession.check or MyanmarParser.check.
+ */
+public class SegmentResult
+{
+    private final SyllableBoundaries mBoundaries = new SyllableBoundaries();
+    private final int [] mStatusCounts = new int[MyanmarParser.PAIR_EOL + 1];
+    private int [] mIllegal = new int[4];
+    private int mIllegalCount = 0;
+    private int mLanguage = MyanmarParser.LANG_MY;
+
+    /**
+     * remove the result of the previous text
+     * @param start offset of the start of the first syllable
+     * @param language LANG_* language hint of the text
+     */
+    void reset(int start, int language)
+    {
+        mBoundaries.reset(start);
+        Arrays.fill(mStatusCounts, 0);
+        mIllegalCount = 0;
+        mLanguage = language;
+    }
+
+    /**
+     * append a syllable
+     * @param end end offset (exclusive)
+     * @param status PAIR_* status code
+     */
+    void add(int end, int status)
+    {
+        mBoundaries.add(end, status);
+        mStatusCounts[status]++;
+        if (status == MyanmarParser.PAIR_ILLEGAL)
+        {
+            if (mIllegalCount == mIllegal.length)
+            {
+                int [] illegal = new int[mIllegal.length * 2];
+                System.arraycopy(mIllegal, 0, illegal, 0, mIllegalCount);
+                mIllegal = illegal;
+            }
+            mIllegal[mIllegalCount++] = end;
+        }
+    }
+
+    /**
+     * @return syllable boundaries of the text
+     */
+    public SyllableBoundaries getBoundaries()
+    {
+        return mBoundaries;
+    }
+
+    /**
+     * @return LANG_* language hint used for the text
+     */
+    public int getLanguage()
+    {
+        return mLanguage;
+    }
+
+    /**
+     * @return true if there are no illegal pairs
+     */
+    public boolean isValid()
+    {
+        return mIllegalCount == 0;
+    }
+
+    /**
+     * @return number of illegal pairs
+     */
+    public int getIllegalCount()
+    {
+        return mIllegalCount;
+    }
+
+    /**
+     * @param i index of an illegal pair
+     * @return offset of the second character of the illegal pair
+     */
+    public int getIllegalOffset(int i)
+    {
+        if (i >= mIllegalCount) throw new IndexOutOfBoundsException();
+        return mIllegal[i];
+    }
+
+    /**
+     * @return number of syllables
+     */
+    public int getSyllableCount()
+    {
+        return mBoundaries.size();
+    }
+
+    /**
+     * @param status PAIR_* status code
+     * @return number of syllables ending with the status
+     */
+    public int getStatusCount(int status)
+    {
+        return mStatusCounts[status];
+    }
+
+    /**
+     * @return number of syllables followed by a line break opportunity
+     */
+    public int getLineBreakCount()
+    {
+        return mStatusCounts[MyanmarParser.PAIR_SYL_BREAK] + 
+            mStatusCounts[MyanmarParser.PAIR_WORD_BREAK];
+    }
+
+    /**
+     * Lists the syllables ending with an illegal pair and those after 
+     * them, as returned by checkMyanmar.
+     * @return array of erroneous clusters or null if there are none
+     */
+    public ClusterProperties [] getErrorClusters()
+    {
+        if (mIllegalCount == 0) return null;
+        ArrayList<ClusterProperties> errorClusters = 
+            new ArrayList<ClusterProperties>(mIllegalCount * 2);
+        boolean prevError = false;
+        for (int i = 0; i < mBoundaries.size(); i++)
+        {
+            int status = mBoundaries.getStatus(i);
+            if (status == MyanmarParser.PAIR_ILLEGAL || prevError)
+            {
+                errorClusters.add(new ClusterProperties(
+                    mBoundaries.getStart(i), mBoundaries.getEnd(i),
+                    MyPairStatus.fromCode(status)));
+                prevError = (status == MyanmarParser.PAIR_ILLEGAL);
+            }
+        }
+        return errorClusters.toArray(
+            new ClusterProperties[errorClusters.size()]);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Title: SegmentedText
+ * Description: Text with syllable boundaries which are updated after edits
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.util.Arrays;
+
+/**
+ * Holds a document together with its syllable boundaries and keeps the
+ * boundaries up to date as the document is edited. 
+ * The break before index i only depends on the characters from i - 1 to
+ * i + MAX_CONTEXT_LENGTH - 1, so after an edit only the syllables from 
+ * MAX_CONTEXT_LENGTH characters before the edit up to the first break 
+ * after the inserted text are parsed again. The whole document is only 
+ * parsed again if the edit changes the language hint.
+ * After each edit getFirstChanged, getChangedCount and getReplacedCount
+ * describe which syllables were replaced, the syllables after them keep
+ * their break status and are just moved.
+ */
+public class SegmentedText
+{
+    private final MyanmarParser mParser;
+    private final StringBuilder mText;
+    private final SyllableBoundaries mBoundaries = new SyllableBoundaries();
+    private int [] mNewEnds = new int[16];
+    private byte [] mNewStatuses = new byte[16];
+    private int mLanguage;
+    // index of the first character which indicates the language or -1
+    private int mLanguageIndex;
+    private int mFirstChanged;
+    private int mChangedCount;
+    private int mReplacedCount;
+
+    /**
+     * Constructor
+     * @param parser
+     * @param text initial document text, which is copied
+     */
+    public SegmentedText(MyanmarParser parser, CharSequence text)
+    {
+        mParser = parser;
+        mText = new StringBuilder(text);
+        mLanguageIndex = findLanguageIndex(0, mText.length());
+        mLanguage = languageAt(mLanguageIndex);
+        resegment();
+    }
+
+    /**
+     * @return the current document text, which must not be modified 
+     * directly
+     */
+    public CharSequence getText()
+    {
+        return mText;
+    }
+
+    /**
+     * @return syllable boundaries of the current text, which must not be 
+     * modified directly
+     */
+    public SyllableBoundaries getBoundaries()
+    {
+        return mBoundaries;
+    }
+
+    /**
+     * @return LANG_* language hint of the current text
+     */
+    public int getLanguage()
+    {
+        return mLanguage;
+    }
+
+    /**
+     * @return index of the first syllable replaced by the last edit
+     */
+    public int getFirstChanged()
+    {
+        return mFirstChanged;
+    }
+
+    /**
+     * @return number of syllables from getFirstChanged which were found by 
+     * the last edit
+     */
+    public int getChangedCount()
+    {
+        return mChangedCount;
+    }
+
+    /**
+     * @return number of syllables from before the last edit which were
+     * replaced by the changed syllables
+     */
+    public int getReplacedCount()
+    {
+        return mReplacedCount;
+    }
+
+    /**
+     * Replaces part of the document and updates the syllable boundaries.
+     * @param offset index of the first character to replace
+     * @param removed number of characters to remove
+     * @param inserted text to insert at offset
+     */
+    public void edit(int offset, int removed, CharSequence inserted)
+    {
+        int oldLength = mText.length();
+        if (offset < 0 || removed < 0 || offset + removed > oldLength)
+            throw new IndexOutOfBoundsException("Edit " + offset + "," + 
+                removed + " is outside text of length " + oldLength);
+        int insertedLength = inserted.length();
+        mText.replace(offset, offset + removed, inserted.toString());
+        int shift = insertedLength - removed;
+        int insertEnd = offset + insertedLength;
+        if (updateLanguage(offset, removed, insertEnd, shift))
+        {
+            resegment();
+            return;
+        }
+        // the break at b is not affected by the edit if b + 2 < offset
+        int first = mBoundaries.indexOf(offset - 
+                                        MyanmarParser.MAX_CONTEXT_LENGTH);
+        int start = (first == 0)? 0 : mBoundaries.getEnd(first - 1);
+        // breaks after insertEnd are not affected, so parse up to the first
+        int length = mText.length();
+        int count = 0;
+        int i = start;
+        while (i < length)
+        {
+            long syllable = mParser.nextSyllable(mText, i, length, mLanguage);
+            i = MyanmarParser.syllableEnd(syllable);
+            if (count == mNewEnds.length)
+            {
+                mNewEnds = Arrays.copyOf(mNewEnds, count * 2);
+                mNewStatuses = Arrays.copyOf(mNewStatuses, 
+                                                       count * 2);
+            }
+            mNewEnds[count] = i;
+            mNewStatuses[count++] = 
+                (byte)MyanmarParser.syllableStatus(syllable);
+            if (i > insertEnd) break;
+        }
+        // old syllables up to and including the one ending at i - shift
+        int last = mBoundaries.indexOf(i - shift);
+        mFirstChanged = first;
+        mChangedCount = count;
+        mReplacedCount = last - first;
+        mBoundaries.replace(first, mReplacedCount, mNewEnds, mNewStatuses, 
+                            count, shift);
+    }
+
+    /**
+     * Updates the language hint after an edit.
+     * @return true if the language hint has changed
+     */
+    private boolean updateLanguage(int offset, int removed, int insertEnd, 
+                                   int shift)
+    {
+        // the language indicator at k depends on the characters k - 1 and k
+        if (mLanguageIndex >= 0 && mLanguageIndex < offset) return false;
+        int length = mText.length();
+        int index = findLanguageIndex(offset, Math.min(insertEnd + 1, length));
+        if (index < 0)
+        {
+            if (mLanguageIndex > offset + removed)
+                index = mLanguageIndex + shift;
+            else if (mLanguageIndex >= 0)
+                index = findLanguageIndex(insertEnd + 1, length);
+        }
+        mLanguageIndex = index;
+        int language = languageAt(index);
+        if (language == mLanguage) return false;
+        mLanguage = language;
+        return true;
+    }
+
+    private int findLanguageIndex(int start, int limit)
+    {
+        for (int k = start; k < limit; k++)
+        {
+            char prev = (k == 0)? ' ' : mText.charAt(k - 1);
+            if (MyanmarParser.getLanguageIndicator(prev, mText.charAt(k)) != 
+                MyanmarParser.LANG_MY)
+                return k;
+        }
+        return -1;
+    }
+
+    private int languageAt(int index)
+    {
+        if (index < 0) return MyanmarParser.LANG_MY;
+        char prev = (index == 0)? ' ' : mText.charAt(index - 1);
+        return MyanmarParser.getLanguageIndicator(prev, mText.charAt(index));
+    }
+
+    private void resegment()
+    {
+        mReplacedCount = mBoundaries.size();
+        mBoundaries.reset(0);
+        int i = 0;
+        int length = mText.length();
+        while (i < length)
+        {
+            long syllable = mParser.nextSyllable(mText, i, length, mLanguage);
+            i = MyanmarParser.syllableEnd(syllable);
+            mBoundaries.add(i, MyanmarParser.syllableStatus(syllable));
+        }
+        mFirstChanged = 0;
+        mChangedCount = mBoundaries.size();
+    }
+}
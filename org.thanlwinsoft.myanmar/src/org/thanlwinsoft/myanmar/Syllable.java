@@ -0,0 +1,108 @@
+/*
+ * Title: Syllable
+ * Description: Immutable position and break status of a syllable
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import org.thanlwinsoft.myanmar.MyanmarParser.MyPairStatus;
+
+/**
+ * Immutable value holding the position, break status and language hint of
+ * a syllable, for callers that need to keep syllables found with a 
+ * SyllableCursor.
+ */
+public final class Syllable
+{
+    private final int mStart;
+    private final int mEnd;
+    private final int mStatus;
+    private final int mLanguage;
+
+    /**
+     * Constructor
+     * @param start start index of the syllable
+     * @param end end index of the syllable (exclusive)
+     * @param status PAIR_* status at the end of the syllable
+     * @param language LANG_* language hint
+     */
+    public Syllable(int start, int end, int status, int language)
+    {
+        mStart = start;
+        mEnd = end;
+        mStatus = status;
+        mLanguage = language;
+    }
+
+    /**
+     * @return start index of the syllable
+     */
+    public int getStart() { return mStart; }
+    /**
+     * @return end index of the syllable (exclusive)
+     */
+    public int getEnd() { return mEnd; }
+    /**
+     * @return length of the syllable
+     */
+    public int length() { return mEnd - mStart; }
+    /**
+     * @return PAIR_* status at the end of the syllable
+     */
+    public int getStatus() { return mStatus; }
+    /**
+     * @return break status at the end of the syllable
+     */
+    public MyPairStatus getBreakStatus() 
+    { 
+        return MyPairStatus.fromCode(mStatus); 
+    }
+    /**
+     * @return LANG_* language hint
+     */
+    public int getLanguage() { return mLanguage; }
+
+    public boolean equals(Object o)
+    {
+        if (!(o instanceof Syllable)) return false;
+        Syllable s = (Syllable)o;
+        return mStart == s.mStart && mEnd == s.mEnd && 
+            mStatus == s.mStatus && mLanguage == s.mLanguage;
+    }
+
+    public int hashCode()
+    {
+        return ((mStart * 31 + mEnd) * 31 + mStatus) * 31 + mLanguage;
+    }
+
+    public String toString()
+    {
+        return "Syllable " + mStart + "-" + mEnd + " " + getBreakStatus();
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Title: SyllableBoundaries
+ * Description: Syllable boundaries of a text found by bulk segmentation
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import org.thanlwinsoft.myanmar.MyanmarParser.MyPairStatus;
+
+/**
+ * Holds every syllable boundary of a text as parallel primitive arrays of
+ * end offsets and PAIR_* status codes, rather than one ClusterProperties
+ * per syllable. An instance can be reused for many texts, the arrays only
+ * grow when a text has more syllables than any previous one.
+ * Fill it with MyanmarParser.segment or ParseSession.segment.
+ */
+public class SyllableBoundaries
+{
+    private static final int DEFAULT_CAPACITY = 64;
+    private int [] mEnds;
+    private byte [] mStatuses;
+    private int mCount = 0;
+    private int mStart = 0;
+
+    /**
+     * Constructor
+     */
+    public SyllableBoundaries()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param capacity initial number of syllables which can be stored
+     */
+    public SyllableBoundaries(int capacity)
+    {
+        mEnds = new int[Math.max(capacity, 1)];
+        mStatuses = new byte[mEnds.length];
+    }
+
+    /**
+     * remove all syllables
+     * @param start offset of the start of the first syllable
+     */
+    void reset(int start)
+    {
+        mStart = start;
+        mCount = 0;
+    }
+
+    /**
+     * append a syllable
+     * @param end end offset (exclusive)
+     * @param status PAIR_* status code
+     */
+    void add(int end, int status)
+    {
+        if (mCount == mEnds.length)
+        {
+            int [] ends = new int[mEnds.length * 2];
+            byte [] statuses = new byte[ends.length];
+            System.arraycopy(mEnds, 0, ends, 0, mCount);
+            System.arraycopy(mStatuses, 0, statuses, 0, mCount);
+            mEnds = ends;
+            mStatuses = statuses;
+        }
+        mEnds[mCount] = end;
+        mStatuses[mCount] = (byte)status;
+        mCount++;
+    }
+
+    /**
+     * replace a range of syllables with new ones and move the end offsets
+     * of the syllables after them
+     * @param index index of the first syllable to replace
+     * @param removeCount number of syllables to replace
+     * @param ends end offsets of the new syllables
+     * @param statuses PAIR_* status codes of the new syllables
+     * @param count number of new syllables
+     * @param shift amount to add to the end offsets after the range
+     */
+    void replace(int index, int removeCount, int [] ends, byte [] statuses,
+                 int count, int shift)
+    {
+        int tail = mCount - index - removeCount;
+        int newCount = mCount - removeCount + count;
+        if (newCount > mEnds.length)
+        {
+            int [] newEnds = new int[Math.max(newCount, mEnds.length * 2)];
+            byte [] newStatuses = new byte[newEnds.length];
+            System.arraycopy(mEnds, 0, newEnds, 0, index);
+            System.arraycopy(mStatuses, 0, newStatuses, 0, index);
+            System.arraycopy(mEnds, index + removeCount, newEnds, 
+                             index + count, tail);
+            System.arraycopy(mStatuses, index + removeCount, newStatuses, 
+                             index + count, tail);
+            mEnds = newEnds;
+            mStatuses = newStatuses;
+        }
+        else
+        {
+            System.arraycopy(mEnds, index + removeCount, mEnds, 
+                             index + count, tail);
+            System.arraycopy(mStatuses, index + removeCount, mStatuses, 
+                             index + count, tail);
+        }
+        System.arraycopy(ends, 0, mEnds, index, count);
+        System.arraycopy(statuses, 0, mStatuses, index, count);
+        mCount = newCount;
+        if (shift != 0)
+        {
+            for (int i = index + count; i < mCount; i++)
+                mEnds[i] += shift;
+        }
+    }
+
+    /**
+     * Finds the syllable containing offset with a binary search.
+     * @param offset
+     * @return index of the syllable or size() if offset is not before the
+     * end of the last syllable
+     */
+    public int indexOf(int offset)
+    {
+        int low = 0;
+        int high = mCount;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (mEnds[mid] <= offset)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * 
+     * @return number of syllables
+     */
+    public int size()
+    {
+        return mCount;
+    }
+
+    /**
+     * 
+     * @param i syllable index
+     * @return start offset of syllable i
+     */
+    public int getStart(int i)
+    {
+        return (i == 0)? mStart : mEnds[i - 1];
+    }
+
+    /**
+     * 
+     * @param i syllable index
+     * @return end offset of syllable i (exclusive)
+     */
+    public int getEnd(int i)
+    {
+        return mEnds[i];
+    }
+
+    /**
+     * 
+     * @param i syllable index
+     * @return PAIR_* status code at the end of syllable i
+     */
+    public int getStatus(int i)
+    {
+        return mStatuses[i];
+    }
+
+    /**
+     * 
+     * @param i syllable index
+     * @return break status at the end of syllable i
+     */
+    public MyPairStatus getBreakStatus(int i)
+    {
+        return MyPairStatus.fromCode(mStatuses[i]);
+    }
+
+    /**
+     * The backing array of end offsets, only the first size() entries are
+     * valid. It is replaced when the boundaries need to grow.
+     * @return end offsets
+     */
+    public int [] getEnds()
+    {
+        return mEnds;
+    }
+
+    /**
+     * The backing array of PAIR_* status codes, only the first size()
+     * entries are valid. It is replaced when the boundaries need to grow.
+     * @return status codes
+     */
+    public byte [] getStatuses()
+    {
+        return mStatuses;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Title: SyllableCursor
+ * Description: Reusable cursor over the syllables of a ParseSession
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import org.thanlwinsoft.myanmar.MyanmarParser.MyPairStatus;
+
+/**
+ * Mutable cursor over the syllables of a ParseSession. advance() moves it
+ * to the next syllable in place, so iterating over a text does not 
+ * allocate an object per syllable. Use toSyllable() to keep a copy of the
+ * current syllable.
+ * <pre>
+ * SyllableCursor cursor = parser.newSession(text).cursor();
+ * while (cursor.advance())
+ * {
+ *     int end = cursor.getEnd();
+ * }
+ * </pre>
+ * Create cursors with ParseSession.cursor.
+ */
+public class SyllableCursor
+{
+    private final ParseSession mSession;
+    private int mStart;
+    private int mEnd;
+    private int mStatus = MyanmarParser.PAIR_NO_BREAK;
+
+    SyllableCursor(ParseSession session)
+    {
+        mSession = session;
+        mStart = mEnd = session.getStart();
+    }
+
+    /**
+     * Moves to the syllable after the current one.
+     * @return false if there are no more syllables
+     */
+    public boolean advance()
+    {
+        if (mEnd >= mSession.getLimit()) return false;
+        long syllable = mSession.nextSyllable(mEnd);
+        mStart = mEnd;
+        mEnd = MyanmarParser.syllableEnd(syllable);
+        mStatus = MyanmarParser.syllableStatus(syllable);
+        return true;
+    }
+
+    /**
+     * Positions the cursor so that the next call to advance finds the 
+     * syllable starting at offset.
+     * @param offset index of the start of a syllable
+     */
+    public void reset(int offset)
+    {
+        mStart = mEnd = offset;
+        mStatus = MyanmarParser.PAIR_NO_BREAK;
+    }
+
+    /**
+     * @return start index of the current syllable
+     */
+    public int getStart() { return mStart; }
+    /**
+     * @return end index of the current syllable (exclusive)
+     */
+    public int getEnd() { return mEnd; }
+    /**
+     * @return length of the current syllable
+     */
+    public int length() { return mEnd - mStart; }
+    /**
+     * @return PAIR_* status at the end of the current syllable
+     */
+    public int getStatus() { return mStatus; }
+    /**
+     * @return break status at the end of the current syllable
+     */
+    public MyPairStatus getBreakStatus() 
+    { 
+        return MyPairStatus.fromCode(mStatus); 
+    }
+    /**
+     * @return LANG_* language hint of the text
+     */
+    public int getLanguage() { return mSession.getLanguage(); }
+
+    /**
+     * @return immutable copy of the current syllable
+     */
+    public Syllable toSyllable()
+    {
+        return new Syllable(mStart, mEnd, mStatus, mSession.getLanguage());
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Title: SyllableReader
+ * Description: Streaming syllable segmentation of a Reader or channel
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Finds the syllable boundaries of text read from a Reader or 
+ * ReadableByteChannel without reading the whole text into memory. 
+ * The text is read through a fixed size buffer which only needs to hold
+ * the current position and MAX_CONTEXT_LENGTH characters of lookahead, so
+ * memory use does not depend on the length of a line or a syllable.
+ * Boundaries are reported as absolute long character offsets from the 
+ * start of the stream. The break statuses are the same as those found by
+ * a ParseSession over the whole text with the same language hint.
+ * <pre>
+ * SyllableReader reader = new SyllableReader(parser, in);
+ * while (reader.next())
+ * {
+ *     long end = reader.getEnd();
+ *     int status = reader.getBreakStatus();
+ * }
+ * </pre>
+ */
+public class SyllableReader implements Closeable
+{
+    /** default size of the character buffer */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    private final MyanmarParser mParser;
+    private final Reader mReader;
+    private final char [] mBuffer;
+    private int mLanguage;
+    private BreakAutomaton mAutomaton;
+    /** automaton state for the pair at mPos, or -1 to find it */
+    private int mState = -1;
+    private int mPos = 0;
+    private int mLimit = 0;
+    private long mBase = 0;
+    private long mStart = 0;
+    private long mEnd = 0;
+    private int mStatus = MyanmarParser.PAIR_NO_BREAK;
+    private boolean mEof = false;
+
+    /**
+     * Constructor, the language hint is guessed from the first buffer of 
+     * text.
+     * @param parser
+     * @param reader text to segment
+     */
+    public SyllableReader(MyanmarParser parser, Reader reader)
+    {
+        this(parser, reader, -1, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor
+     * @param parser
+     * @param reader text to segment
+     * @param langHint LANG_* value or -1 to guess it from the first buffer
+     * of text
+     * @param bufferSize number of characters to buffer, this must be 
+     * greater than MAX_CONTEXT_LENGTH
+     */
+    public SyllableReader(MyanmarParser parser, Reader reader, int langHint, 
+                          int bufferSize)
+    {
+        if (bufferSize <= MyanmarParser.MAX_CONTEXT_LENGTH)
+            throw new IllegalArgumentException("Buffer size " + bufferSize + 
+                " must be greater than " + MyanmarParser.MAX_CONTEXT_LENGTH);
+        mParser = parser;
+        mReader = reader;
+        mLanguage = langHint;
+        mBuffer = new char[bufferSize];
+    }
+
+    /**
+     * Constructor for a byte channel, the language hint is guessed from the
+     * first buffer of text.
+     * @param parser
+     * @param channel bytes of the text to segment
+     * @param charset encoding of the bytes
+     */
+    public SyllableReader(MyanmarParser parser, ReadableByteChannel channel,
+                          Charset charset)
+    {
+        this(parser, Channels.newReader(channel, charset.newDecoder(), 
+             DEFAULT_BUFFER_SIZE), -1, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Moves to the next syllable.
+     * @return false if the end of the text has been reached
+     * @throws IOException
+     */
+    public boolean next() throws IOException
+    {
+        int i = mPos;
+        while (!mEof && (mLanguage < 0 || 
+               i + MyanmarParser.MAX_CONTEXT_LENGTH >= mLimit))
+            i = fill(i);
+        if (i >= mLimit) return false;
+        int breakType = MyanmarParser.PAIR_NO_BREAK;
+        while (true)
+        {
+            if (!mEof && i + MyanmarParser.MAX_CONTEXT_LENGTH >= mLimit)
+            {
+                i = fill(i);
+                continue;
+            }
+            if (i + 1 >= mLimit)
+            {
+                breakType = MyanmarParser.PAIR_EOL;
+                break;
+            }
+            if (mState < 0)
+            {
+                mAutomaton = mParser.getBreakRules().getAutomaton(mLanguage);
+                mState = mAutomaton.start(mAutomaton.symbol(mBuffer[i]),
+                    mAutomaton.symbol(mBuffer[i + 1]), (i + 2 < mLimit)? 
+                    mAutomaton.symbol(mBuffer[i + 2]) : mAutomaton.pad());
+            }
+            int transition = mAutomaton.next(mState, (i + 3 < mLimit)?
+                mAutomaton.symbol(mBuffer[i + 3]) : mAutomaton.pad());
+            breakType = transition & BreakAutomaton.STATUS_MASK;
+            mState = transition >>> BreakAutomaton.STATE_SHIFT;
+            if (breakType != MyanmarParser.PAIR_NO_BREAK) break;
+            i++;
+        }
+        mPos = i + 1;
+        mStart = mEnd;
+        mEnd = mBase + mPos;
+        mStatus = breakType;
+        return true;
+    }
+
+    /**
+     * Discards the buffer before index and reads more characters after 
+     * the remaining ones.
+     * @param index first buffer index that is still needed
+     * @return new buffer index of the character at index
+     * @throws IOException
+     */
+    private int fill(int index) throws IOException
+    {
+        if (index > 0)
+        {
+            System.arraycopy(mBuffer, index, mBuffer, 0, mLimit - index);
+            mLimit -= index;
+            mBase += index;
+        }
+        int read = mReader.read(mBuffer, mLimit, mBuffer.length - mLimit);
+        if (read < 0)
+            mEof = true;
+        else
+            mLimit += read;
+        if (mLanguage < 0 && (mEof || mLimit == mBuffer.length))
+            mLanguage = mParser.guessLanguage(mBuffer, 0, mLimit);
+        return 0;
+    }
+
+    /**
+     * @return absolute offset of the start of the current syllable
+     */
+    public long getStart() { return mStart; }
+    /**
+     * @return absolute offset of the end of the current syllable 
+     * (exclusive)
+     */
+    public long getEnd() { return mEnd; }
+    /**
+     * @return PAIR_* status at the end of the current syllable
+     */
+    public int getBreakStatus() { return mStatus; }
+    /**
+     * @return language hint in use, which is only known once the first 
+     * buffer has been read
+     */
+    public int getLanguage() { return mLanguage; }
+
+    /**
+     * Closes the underlying Reader or channel.
+     */
+    public void close() throws IOException
+    {
+        mReader.close();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Title: SyllableSpliterator
+ * Description: Splittable source of syllables for streams
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the syllables of a ParseSession, which can be split for
+ * parallel streams. Whether there is a boundary before a character only
+ * depends on the character before it and the 2 after it, so a range can 
+ * be cut at any boundary and each part gives exactly the syllables that a
+ * sequential scan of the whole text would. trySplit cuts at the first 
+ * boundary after the middle of the range, or failing that the last one 
+ * before it. A run of characters which are not Myanmar has no boundaries,
+ * so it is never cut.
+ * Create it with ParseSession.spliterator or MyanmarParser.stream.
+ */
+final class SyllableSpliterator implements Spliterator<Syllable>
+{
+    /** ranges shorter than this are not split */
+    static final int MIN_SPLIT = 4096;
+    /** number of syllables segmented at a time by forEachRemaining */
+    private static final int BATCH_SIZE = 1024;
+    private final ParseSession mSession;
+    private int mPos;
+    private final int mEnd;
+
+    /**
+     * Constructor
+     * @param session 
+     * @param start boundary where the first syllable starts
+     * @param end boundary where the last syllable ends
+     */
+    SyllableSpliterator(ParseSession session, int start, int end)
+    {
+        mSession = session;
+        mPos = start;
+        mEnd = end;
+    }
+
+    public boolean tryAdvance(Consumer<? super Syllable> action)
+    {
+        if (mPos >= mEnd) return false;
+        long syllable = mSession.nextSyllable(mPos);
+        int end = MyanmarParser.syllableEnd(syllable);
+        action.accept(new Syllable(mPos, end, 
+            MyanmarParser.syllableStatus(syllable), mSession.getLanguage()));
+        mPos = end;
+        return true;
+    }
+
+    public void forEachRemaining(Consumer<? super Syllable> action)
+    {
+        int language = mSession.getLanguage();
+        int size = Math.min(BATCH_SIZE, mEnd - mPos + 1);
+        int [] ends = new int[size];
+        byte [] statuses = new byte[size];
+        int pos = mPos;
+        while (pos < mEnd)
+        {
+            int count = mSession.segment(pos, ends, statuses);
+            for (int i = 0; i < count && pos < mEnd; i++)
+            {
+                action.accept(new Syllable(pos, ends[i], statuses[i], 
+                                           language));
+                pos = ends[i];
+            }
+        }
+        mPos = pos;
+    }
+
+    public Spliterator<Syllable> trySplit()
+    {
+        if (mEnd - mPos < MIN_SPLIT) return null;
+        int mid = (mPos + mEnd) >>> 1;
+        int split = MyanmarParser.syllableEnd(mSession.nextSyllable(mid));
+        if (split >= mEnd) split = mSession.prevSyllable(mid + 1);
+        if (split <= mPos) return null;
+        SyllableSpliterator prefix = 
+            new SyllableSpliterator(mSession, mPos, split);
+        mPos = split;
+        return prefix;
+    }
+
+    /**
+     * @return the number of characters left, which is at least the number
+     * of syllables
+     */
+    public long estimateSize()
+    {
+        return mEnd - mPos;
+    }
+
+    public int characteristics()
+    {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Title: Utn11Queue
+ * Description: Primitive queue of the characters of a syllable being validated
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+/**
+ * Queue of the characters of the syllable being validated, which is used
+ * as a stack with the most recent character at the top. Each character is
+ * stored next to its packed CharProperties, so its UTN11 class is not 
+ * looked up again when it is peeked. The characters are held in primitive
+ * circular arrays, which only grow if a syllable is longer than any 
+ * before it, so validating does not allocate per character.
+ */
+final class Utn11Queue
+{
+    private char [] mChars;
+    private int [] mProperties;
+    private int mMask;
+    private int mHead = 0;
+    private int mSize = 0;
+
+    /**
+     * Constructor
+     * @param capacity initial number of characters, rounded up to a power
+     * of 2
+     */
+    Utn11Queue(int capacity)
+    {
+        int length = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mChars = new char[length];
+        mProperties = new int[length];
+        mMask = length - 1;
+    }
+
+    /**
+     * 
+     * @return number of characters in the queue
+     */
+    int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * removes all characters
+     */
+    void clear()
+    {
+        mSize = 0;
+    }
+
+    /**
+     * adds a character to the top
+     * @param c
+     */
+    void push(char c)
+    {
+        if (mSize == mChars.length) grow();
+        mHead = (mHead - 1) & mMask;
+        mChars[mHead] = c;
+        mProperties[mHead] = CharProperties.get(c);
+        mSize++;
+    }
+
+    /**
+     * removes the character at the top
+     * @return the removed character
+     */
+    char pop()
+    {
+        char c = mChars[mHead];
+        mHead = (mHead + 1) & mMask;
+        mSize--;
+        return c;
+    }
+
+    /**
+     * 
+     * @return the character at the top or U+0000, which has no UTN11 
+     * class, if the queue is empty
+     */
+    char peek()
+    {
+        return (mSize == 0)? 0 : mChars[mHead];
+    }
+
+    /**
+     * 
+     * @return packed CharProperties of the character at the top or 0 if 
+     * the queue is empty
+     */
+    int peekProperties()
+    {
+        return (mSize == 0)? 0 : mProperties[mHead];
+    }
+
+    /**
+     * adds a character to the bottom, before the oldest character
+     * @param c
+     */
+    void addLast(char c)
+    {
+        if (mSize == mChars.length) grow();
+        int i = (mHead + mSize) & mMask;
+        mChars[i] = c;
+        mProperties[i] = CharProperties.get(c);
+        mSize++;
+    }
+
+    /**
+     * 
+     * @return the oldest character or U+0000 if the queue is empty
+     */
+    char peekLast()
+    {
+        return (mSize == 0)? 0 : mChars[(mHead + mSize - 1) & mMask];
+    }
+
+    /**
+     * removes the oldest character
+     * @return the removed character
+     */
+    char removeLast()
+    {
+        mSize--;
+        return mChars[(mHead + mSize) & mMask];
+    }
+
+    /**
+     * 
+     * @param i index from the top, 0 is the most recent character
+     * @return character
+     */
+    char get(int i)
+    {
+        return mChars[(mHead + i) & mMask];
+    }
+
+    private void grow()
+    {
+        char [] chars = new char[mChars.length * 2];
+        int [] properties = new int[chars.length];
+        for (int i = 0; i < mSize; i++)
+        {
+            chars[i] = mChars[(mHead + i) & mMask];
+            properties[i] = mProperties[(mHead + i) & mMask];
+        }
+        mChars = chars;
+        mProperties = properties;
+        mMask = chars.length - 1;
+        mHead = 0;
+    }
+}
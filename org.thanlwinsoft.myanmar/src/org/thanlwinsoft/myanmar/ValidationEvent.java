@@ -0,0 +1,124 @@
+/*
+ * Title: ValidationEvent
+ * Description: A validation problem reported to a listener
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+/**
+ * A problem found by a validator. Columns are counted like 
+ * Validator.getColumn, so a tab advances to the next tab stop. Events are
+ * immutable and are only created when a listener has been added.
+ */
+public class ValidationEvent
+{
+    private final ValidationRule mRule;
+    private final String mRef;
+    private final long mLine;
+    private final long mColumn;
+    private final long mEndColumn;
+    private final String mOriginal;
+    private final String mCorrected;
+
+    ValidationEvent(ValidationRule rule, String ref, long line, long column, 
+                    long endColumn, String original, String corrected)
+    {
+        mRule = rule;
+        mRef = ref;
+        mLine = line;
+        mColumn = column;
+        mEndColumn = endColumn;
+        mOriginal = original;
+        mCorrected = corrected;
+    }
+
+    /**
+     * 
+     * @return rule which found the problem
+     */
+    public ValidationRule getRule()
+    {
+        return mRule;
+    }
+
+    /**
+     * 
+     * @return reference set on the validator, e.g. a file name, or null
+     */
+    public String getRef()
+    {
+        return mRef;
+    }
+
+    /**
+     * 
+     * @return line number
+     */
+    public long getLine()
+    {
+        return mLine;
+    }
+
+    /**
+     * 
+     * @return column before the first character of the syllable
+     */
+    public long getColumn()
+    {
+        return mColumn;
+    }
+
+    /**
+     * 
+     * @return column after the last character of the syllable which was 
+     * read, so the original text spans getColumn to getEndColumn
+     */
+    public long getEndColumn()
+    {
+        return mEndColumn;
+    }
+
+    /**
+     * 
+     * @return characters of the syllable as they were read
+     */
+    public String getOriginal()
+    {
+        return mOriginal;
+    }
+
+    /**
+     * 
+     * @return characters of the syllable after the rule was applied
+     */
+    public String getCorrected()
+    {
+        return mCorrected;
+    }
+}
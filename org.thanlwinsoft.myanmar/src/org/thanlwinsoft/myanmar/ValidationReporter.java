@@ -0,0 +1,188 @@
+/*
+ * Title: ValidationReporter
+ * Description: Dispatches validation events to listeners
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+/**
+ * Dispatches the problems found by a validator to its listeners. While 
+ * there are listeners it also records the characters read for the 
+ * syllable being validated, so events can show them before correction.
+ * The character being validated is held back until the next one is read,
+ * since it may start the next syllable.
+ */
+final class ValidationReporter
+{
+    static final ValidationListener [] NONE = new ValidationListener[0];
+    private ValidationListener [] mListeners;
+    private char [] mOriginal = new char[16];
+    private int mOriginalLength = 0;
+    private long mOriginalColumn = 0;
+    private long mOriginalEndColumn = 0;
+    private char mPending = 0;
+    private long mPendingColumn = 0;
+
+    /**
+     * Constructor
+     * @param listeners initial listeners, which are not modified
+     */
+    ValidationReporter(ValidationListener [] listeners)
+    {
+        mListeners = listeners;
+    }
+
+    /**
+     * 
+     * @return true if there are listeners
+     */
+    boolean isActive()
+    {
+        return mListeners.length > 0;
+    }
+
+    void addListener(ValidationListener listener)
+    {
+        mListeners = add(mListeners, listener);
+    }
+
+    void removeListener(ValidationListener listener)
+    {
+        mListeners = remove(mListeners, listener);
+    }
+
+    /**
+     * @return copy of listeners with listener added at the end
+     */
+    static ValidationListener [] add(ValidationListener [] listeners,
+                                     ValidationListener listener)
+    {
+        ValidationListener [] added = 
+            new ValidationListener[listeners.length + 1];
+        System.arraycopy(listeners, 0, added, 0, listeners.length);
+        added[listeners.length] = listener;
+        return added;
+    }
+
+    /**
+     * @return copy of listeners without listener
+     */
+    static ValidationListener [] remove(ValidationListener [] listeners,
+                                        ValidationListener listener)
+    {
+        for (int i = 0; i < listeners.length; i++)
+        {
+            if (listeners[i] == listener)
+            {
+                ValidationListener [] removed = 
+                    new ValidationListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, removed, 0, i);
+                System.arraycopy(listeners, i + 1, removed, i, 
+                                 removed.length - i);
+                return removed;
+            }
+        }
+        return listeners;
+    }
+
+    /**
+     * Records a character as it is read, only needed while active.
+     * @param c character added to the syllable or 0 if it is not Myanmar
+     * @param column column after c
+     */
+    void read(char c, long column)
+    {
+        if (mPending != 0)
+        {
+            if (mOriginalLength == 0)
+                mOriginalColumn = mPendingColumn - 1;
+            mOriginalEndColumn = mPendingColumn;
+            if (mOriginalLength == mOriginal.length)
+            {
+                char [] original = new char[mOriginal.length * 2];
+                System.arraycopy(mOriginal, 0, original, 0, mOriginalLength);
+                mOriginal = original;
+            }
+            mOriginal[mOriginalLength++] = mPending;
+        }
+        mPending = c;
+        mPendingColumn = column;
+    }
+
+    /**
+     * Forgets the characters of a syllable which has been written
+     */
+    void written()
+    {
+        mOriginalLength = 0;
+    }
+
+    /**
+     * Forgets all characters, before validating a new text
+     */
+    void clear()
+    {
+        mOriginalLength = 0;
+        mPending = 0;
+    }
+
+    /**
+     * Sends an event to the listeners.
+     * @param rule rule which found the problem
+     * @param ref reference for the text
+     * @param line line number
+     * @param column column of the last character read, which is only used
+     * if no characters of the syllable were recorded
+     * @param queue syllable after the rule was applied
+     * @param withPending true if the character being validated is part of 
+     * the syllable in queue
+     */
+    void report(ValidationRule rule, String ref, long line, long column,
+                Utn11Queue queue, boolean withPending)
+    {
+        int size = queue.size();
+        char [] corrected = new char[size];
+        for (int i = 0; i < size; i++)
+            corrected[size - 1 - i] = queue.get(i);
+        String original = new String(mOriginal, 0, mOriginalLength);
+        long startColumn = (mOriginalLength > 0)? mOriginalColumn : column;
+        long endColumn = (mOriginalLength > 0)? mOriginalEndColumn : column;
+        if (withPending && mPending != 0)
+        {
+            original += mPending;
+            // Myanmar characters are one column wide
+            if (mOriginalLength == 0) startColumn = mPendingColumn - 1;
+            endColumn = mPendingColumn;
+        }
+        ValidationEvent event = new ValidationEvent(rule, ref, line, 
+            startColumn, endColumn, original, new String(corrected));
+        for (ValidationListener listener : mListeners)
+            listener.validationEvent(event);
+    }
+}
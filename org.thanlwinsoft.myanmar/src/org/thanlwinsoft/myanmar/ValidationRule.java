@@ -0,0 +1,140 @@
+/*
+ * Title: ValidationRule
+ * Description: Rules which report validation problems
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import org.thanlwinsoft.myanmar.Validator.Status;
+
+/**
+ * The rules which a validator reports through a ValidationListener. Rules
+ * with the status Corrected change the text to the UTN11 order, the others
+ * report a sequence which is left as it was.
+ */
+public enum ValidationRule
+{
+    /** a prefix vowel or medial which is not followed by a consonant */
+    BAD_PREFIX(Status.Invalid, "Bad prefix at:"),
+    /** a syllable starting with a character which follows a consonant */
+    UNEXPECTED_SEQUENCE(Status.Invalid, "Unexpected sequence at:"),
+    /** digit zero used for wa */
+    ZERO_WA(Status.Corrected, "Corrected wa at:"),
+    /** U+1025 used for U+1009 */
+    U1025_NYA(Status.Corrected, "Corrected U+1025 at:"),
+    /** U+1025 U+102E instead of U+1026 */
+    U1025_U102E(Status.Corrected, "U+1025 U+102E -> U+1026"),
+    /** kinzi which is not followed by a consonant */
+    MISPLACED_KINZI(Status.Invalid, "Misplaced Kinzi"),
+    /** U+102F before U+103A */
+    LOWER_VOWEL_ASAT(Status.Corrected, "Corrected U+102F U+103A:"),
+    /** U+103A typed twice */
+    DUPLICATE_ASAT(Status.Corrected, "Corrected duplicate U+103A"),
+    /** asat before Shan medial wa or Mon medial ha */
+    ASAT_MEDIAL_ORDER(Status.Corrected, 
+                      "Changed order of asat/shan wa/1037:"),
+    /** visible virama before U+1037 */
+    VIRAMA_DOT_ORDER(Status.Corrected, 
+                     "Changed order of visible virama 1037:"),
+    /** Karen vowel after a lower vowel */
+    UNEXPECTED_KAREN_VOWEL(Status.Invalid, "Unexpected Karen Vowel at:"),
+    /** U+1037 after a Mon asat */
+    MON_ASAT_DOT(Status.Invalid, "Invalid MonAsat position with 1037 at:"),
+    /** an upper vowel typed twice */
+    DUPLICATE_UPPER_VOWEL(Status.Corrected, 
+                          "Corrected duplicate upper vowel at:"),
+    /** two different upper vowels */
+    UPPER_VOWELS(Status.Invalid, "Invalid at:"),
+    /** anusvara before a lower vowel */
+    ANUSVARA_LOWER_VOWEL(Status.Corrected, 
+                         "Corrected anusvara lower vowel at:"),
+    /** asat after an upper vowel */
+    UPPER_VOWEL_ASAT(Status.Invalid, "Upper vowel, asat"),
+    /** visible virama which does not follow a vowel or tone */
+    UNEXPECTED_VISIBLE_VIRAMA(Status.Invalid, "Unexpected Visible Virama"),
+    /** more than one stacked consonant in a syllable */
+    MULTIPLE_PALI_STACKS(Status.Invalid, 
+        "Syllable has multiple Pali stacks. Is this really correct?"),
+    /** prefix vowel or medial typed before the consonant */
+    PREFIX_ORDER(Status.Corrected, "Corrected prefix sequence at:"),
+    /** digit zero after a prefix vowel or medial used for wa */
+    PREFIX_ZERO_WA(Status.Corrected, "Changed 0 to wa:"),
+    /** e vowel before medial ra */
+    E_MEDIAL_RA_ORDER(Status.Corrected, "Corrected e/medial ra:"),
+    /** e vowel before a medial */
+    E_MEDIAL_ORDER(Status.Corrected, "Corrected e/medial:"),
+    /** lower vowel before upper vowel */
+    LOWER_UPPER_VOWEL_ORDER(Status.Corrected, 
+                            "Corrected at lower/upper vowel order:"),
+    /** medial before asat in a contraction */
+    CONTRACTION_ORDER(Status.Corrected, "Corrected contraction order:"),
+    /** upper or Shan vowel before a medial */
+    MEDIAL_VOWEL_ORDER(Status.Corrected, 
+                       "Corrected medial/upper or shan vowel order:"),
+    /** a character typed twice */
+    DUPLICATE(Status.Corrected, "Swallowed duplicate:"),
+    /** visarga after the reduplication sign */
+    REDUPLICATION_VISARGA(Status.Corrected, 
+                          "Corrected Reduplication Visarga"),
+    /** a character out of the UTN11 order */
+    INVALID_SEQUENCE(Status.Invalid, "Invalid sequence at:"),
+    /** U+1039 at the end of a syllable used for U+103A */
+    STRAY_VIRAMA(Status.Corrected, "Corrected 0x1039 at:"),
+    /** U+1039 at the end of a syllable which is not after a consonant */
+    UNEXPECTED_VIRAMA(Status.Invalid, "Unexpected virama at:"),
+    /** digit 4 used for U+104E in ၎င်း */
+    DIGIT_FOUR(Status.Corrected, "Corrected ၄င်း");
+
+    private final Status mStatus;
+    private final String mMessage;
+
+    ValidationRule(Status status, String message)
+    {
+        mStatus = status;
+        mMessage = message;
+    }
+
+    /**
+     * 
+     * @return Corrected if the rule corrects the text, otherwise Invalid
+     */
+    public Status getStatus()
+    {
+        return mStatus;
+    }
+
+    /**
+     * 
+     * @return description of the rule for logs
+     */
+    public String getMessage()
+    {
+        return mMessage;
+    }
+}
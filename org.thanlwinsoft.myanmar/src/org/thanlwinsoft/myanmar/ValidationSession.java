@@ -0,0 +1,231 @@
+/*
+ * Title: ValidationSession
+ * Description: Validation state of a single document
+ * Copyright:   Copyright (c) 2026 http://www.thanlwinsoft.org
+ *
+ * This file is free software; you can redistribute it and/or
+ * modify it under the terms of either the Apache License, Version 2.0 or
+ * the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * You may obtain a copy of the Apache License, Version 2.0 at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the
+ * Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+ * Boston, MA  02111-1307  USA
+ */
+package org.thanlwinsoft.myanmar;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+import org.thanlwinsoft.myanmar.MyanmarValidator.UTN11;
+import org.thanlwinsoft.myanmar.Validator.Status;
+
+/**
+ * Validates a single document with a MyanmarValidator. The session holds
+ * the line and column reached, the error count and the syllable being 
+ * validated, so one validator can be shared by threads which each 
+ * validate with their own session. The tab width and listeners of the 
+ * validator are copied when the session is created.
+ * Create sessions with MyanmarValidator.newSession.
+ */
+public class ValidationSession
+{
+    private static final int BLOCK_SIZE = 4096;
+    private final MyanmarValidator mValidator;
+    long mTabWidth;
+    final ValidationReporter mReporter;
+    String mRef;
+    long mLine = 1;
+    long mColumn = 0;
+    long mErrorCount = 0;
+    // state of the text being validated, which is kept between blocks
+    final Utn11Queue mQueue = 
+        new Utn11Queue(UTN11.Reduplicator.getSequenceId());
+    Status mStatus = Status.Valid;
+    boolean mBadPrefix = false;
+    UTN11 mSeq = UTN11.Unknown;
+
+    ValidationSession(MyanmarValidator validator, long tabWidth, String ref,
+                      ValidationListener [] listeners)
+    {
+        mValidator = validator;
+        mTabWidth = tabWidth;
+        mRef = ref;
+        mReporter = new ValidationReporter(listeners);
+    }
+
+    /**
+     * 
+     * @return reference passed to the validation events, e.g. a file name
+     */
+    public String getRef()
+    {
+        return mRef;
+    }
+
+    /**
+     * 
+     * @return line number
+     */
+    public long getLineNumber()
+    {
+        return mLine;
+    }
+
+    /**
+     * 
+     * @return column index
+     */
+    public long getColumn()
+    {
+        return mColumn;
+    }
+
+    /**
+     * number of errors found since the session was created or reset
+     * @return error count
+     */
+    public long getErrorCount()
+    {
+        return mErrorCount;
+    }
+
+    /**
+     * reset line, col number and error count
+     */
+    public void reset()
+    {
+        mLine = 1;
+        mColumn = 0;
+        mErrorCount = 0;
+    }
+
+    /**
+     * Adds a listener which only receives the problems found by this 
+     * session
+     * @param listener
+     */
+    public void addValidationListener(ValidationListener listener)
+    {
+        mReporter.addListener(listener);
+    }
+
+    /**
+     * Removes a listener from this session
+     * @param listener
+     */
+    public void removeValidationListener(ValidationListener listener)
+    {
+        mReporter.removeListener(listener);
+    }
+
+    /**
+     * 
+     * @param input
+     * @param builder may be null
+     * @return validation status
+     */
+    public Status validate(String input, StringBuilder builder)
+    {
+        try
+        {
+            return validate(input, 0, input.length(), (builder != null)?
+                            builder : new StringBuilder(input.length()));
+        }
+        catch (IOException e)
+        {
+            // a StringBuilder does not throw IOException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** validate text from specified reader
+     * 
+     */
+    public Status validate(BufferedReader r, BufferedWriter w)
+    {
+        char [] block = new char[BLOCK_SIZE];
+        CharBuffer text = CharBuffer.wrap(block);
+        mValidator.begin(this);
+        try
+        {
+            while (true)
+            {
+                int length;
+                try
+                {
+                    length = r.read(block, 0, block.length);
+                }
+                catch (IOException e)
+                {
+                    break;
+                }
+                if (length < 0)
+                    break; // end
+                mValidator.validateBlock(this, text, 0, length, w);
+            }
+            mValidator.end(this, w);
+        }
+        catch (IOException e)
+        {
+            MyanmarValidator.sLogger.severe(e.getMessage());
+        }
+        return mStatus;
+    }
+
+    /**
+     * Validates a range of a text, such as a String or CharBuffer, and 
+     * appends the validated text to output. Runs of characters which are
+     * not Myanmar are copied in bulk.
+     * @param input text to validate
+     * @param start first index of the range
+     * @param limit end of the range (exclusive)
+     * @param output receives the validated text, e.g. a StringBuilder, 
+     * CharBuffer or Writer
+     * @return validation status
+     * @throws IOException if output throws
+     */
+    public Status validate(CharSequence input, int start, int limit, 
+                           Appendable output) throws IOException
+    {
+        mValidator.begin(this);
+        mValidator.validateBlock(this, input, start, limit, output);
+        mValidator.end(this, output);
+        return mStatus;
+    }
+
+    /**
+     * Validates a range of a char array and appends the validated text to
+     * output.
+     * @param input text to validate
+     * @param start first index of the range
+     * @param limit end of the range (exclusive)
+     * @param output receives the validated text
+     * @return validation status
+     * @throws IOException if output throws
+     */
+    public Status validate(char [] input, int start, int limit, 
+                           Appendable output) throws IOException
+    {
+        return validate(CharBuffer.wrap(input), start, limit, output);
+    }
+}
@@ -19,6 +19,8 @@ package org.thanlwinsoft.myanmar;
  */
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.CharBuffer;
 
 /**
  * Interface for a validator
@@ -60,6 +62,40 @@ public interface Validator
 	 * @return validation status
 	 */
 	public Status validate(BufferedReader r, BufferedWriter w);
+	/**
+	 * Perform validation on a range of text, such as a String or 
+	 * CharBuffer, without reading it one character at a time. The default
+	 * implementation validates a copy of the range as a String.
+	 * @param input text to validate
+	 * @param start first index of the range
+	 * @param limit end of the range (exclusive)
+	 * @param output receives the validated text
+	 * @return validation status
+	 * @throws IOException if output throws
+	 */
+	public default Status validate(CharSequence input, int start, int limit, 
+	                               Appendable output) throws IOException
+	{
+	    StringBuilder validated = new StringBuilder(limit - start);
+	    Status status = validate(input.subSequence(start, limit).toString(),
+	                             validated);
+	    output.append(validated);
+	    return status;
+	}
+	/**
+	 * Perform validation on a range of a char array
+	 * @param input text to validate
+	 * @param start first index of the range
+	 * @param limit end of the range (exclusive)
+	 * @param output receives the validated text
+	 * @return validation status
+	 * @throws IOException if output throws
+	 */
+	public default Status validate(char [] input, int start, int limit, 
+	                               Appendable output) throws IOException
+	{
+	    return validate(CharBuffer.wrap(input), start, limit, output);
+	}
 	
 	/**
      * 
@@ -6,6 +6,7 @@ package org.thanlwinsoft.myanmar.junitTest;
 import static org.junit.Assert.fail;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayDeque;
@@ -17,6 +18,7 @@ import org.junit.Test;
 import org.thanlwinsoft.myanmar.Analysis;
 import org.thanlwinsoft.myanmar.AnalysisSyllable;
 import org.thanlwinsoft.myanmar.MyanmarValidator;
+import org.thanlwinsoft.myanmar.Validator;
 
 
 /**
@@ -107,4 +109,43 @@ public class AnalysisTest
 		Assert.assertEquals(1, results.get(new AnalysisSyllable("အိုႏ", new ArrayDeque<String>())).intValue());
 		Assert.assertEquals(1, results.get(new AnalysisSyllable("အပီ", new ArrayDeque<String>())).intValue());
 	}
+
+	/**
+	 * test with a Validator which is not a MyanmarValidator
+	 */
+	@Test
+	public void test5() throws IOException
+	{
+		Validator passThrough = new Validator()
+		{
+			public Status validate(String input, StringBuilder output)
+			{
+				if (output != null) output.append(input);
+				return Status.Valid;
+			}
+			public Status validate(BufferedReader r, BufferedWriter w)
+			{
+				try
+				{
+					String line;
+					while ((line = r.readLine()) != null) w.write(line);
+				}
+				catch (IOException e)
+				{
+					return Status.Invalid;
+				}
+				return Status.Valid;
+			}
+			public long getLineNumber() { return 1; }
+			public long getColumn() { return 0; }
+			public long getErrorCount() { return 0; }
+			public void reset() {}
+		};
+		Analysis analizer = new Analysis(passThrough, 0);
+		analizer.analyse(new BufferedReader(new StringReader("အၚ်လိက်")));
+		Map<AnalysisSyllable, Integer> results = analizer.getSyllables();
+		Assert.assertEquals(1, results.get(new AnalysisSyllable("အၚ်", new ArrayDeque<String>())).intValue());
+		Assert.assertEquals(1, results.get(new AnalysisSyllable("လိက်", new ArrayDeque<String>())).intValue());
+		Assert.assertEquals(2, results.size());
+	}
 }
@@ -21,7 +21,21 @@ package org.thanlwinsoft.myanmar.junitTest;
 */
 import junit.framework.*;
 import junit.extensions.TestSetup;
+import java.text.BreakIterator;
+import java.text.StringCharacterIterator;
+
+import org.thanlwinsoft.myanmar.BoundaryIndex;
+import org.thanlwinsoft.myanmar.BreakRules;
+import org.thanlwinsoft.myanmar.LineFitter;
+import org.thanlwinsoft.myanmar.MyanmarBreakIterator;
 import org.thanlwinsoft.myanmar.MyanmarParser;
+import org.thanlwinsoft.myanmar.ParseSession;
+import org.thanlwinsoft.myanmar.SegmentResult;
+import org.thanlwinsoft.myanmar.SegmentedText;
+import org.thanlwinsoft.myanmar.Syllable;
+import org.thanlwinsoft.myanmar.SyllableBoundaries;
+import org.thanlwinsoft.myanmar.SyllableCursor;
+import org.thanlwinsoft.myanmar.SyllableReader;
 import org.thanlwinsoft.myanmar.MyanmarParser.ClusterProperties;
 
 /**
@@ -726,6 +740,683 @@ public class LineBreakTest extends TestCase
                  cp.getBreakStatus());
   }
 
+  /** a session should give the same syllables as the text based methods */
+  public void test_session_01()
+  {
+    ParseSession session = myParser.newSession(STRING_I);
+    assertEquals(MyanmarParser.LANG_KSW, session.getLanguage());
+    int offset = 0;
+    while (offset < STRING_I.length())
+    {
+      ClusterProperties expected = myParser.getNextSyllable(STRING_I, offset);
+      ClusterProperties cp = session.getNextSyllable(offset);
+      assertEquals(cp.toString(), expected.getEnd(), cp.getEnd());
+      assertEquals(cp.toString(), expected.getBreakStatus(), cp.getBreakStatus());
+      offset = cp.getEnd();
+    }
+    assertNull(session.getNextSyllable(offset));
+  }
+  /** */
+  public void test_session_02() // ဘာ| လဲ။
+  {
+    ParseSession session = myParser.newSession(STRING_F);
+    assertEquals(MyanmarParser.LANG_MY, session.getLanguage());
+    ClusterProperties cp = session.getNextLineBreak(0);
+    assertEquals(cp.toString(), 2, cp.getEnd());
+    assertEquals(cp.toString(), MyanmarParser.MyPairStatus.MY_PAIR_WORD_BREAK,
+                 cp.getBreakStatus());
+  }
+
+  /** parse a range of a larger buffer in place */
+  public void test_session_03()
+  {
+    StringBuilder builder = new StringBuilder("abc ");
+    builder.append(STRING_D).append(" xyz");
+    char [] array = builder.toString().toCharArray();
+    ParseSession [] sessions = new ParseSession[] {
+        myParser.newSession(builder, 4, 4 + STRING_D.length()),
+        myParser.newSession(array, 4, 4 + STRING_D.length())
+    };
+    for (ParseSession session : sessions)
+    {
+      ClusterProperties cp = session.getNextSyllable(4);
+      assertEquals(cp.toString(), 7, cp.getEnd());
+      assertEquals(cp.toString(), MyanmarParser.MyPairStatus.MY_PAIR_SYL_BREAK,
+                   cp.getBreakStatus());
+      cp = session.getNextSyllable(7);
+      assertEquals(cp.toString(), 11, cp.getEnd());
+      assertEquals(cp.toString(), MyanmarParser.MyPairStatus.MY_PAIR_EOL,
+                   cp.getBreakStatus());
+    }
+  }
+
+  /** bulk segmentation should match getNextSyllable */
+  public void test_segment_01()
+  {
+    SyllableBoundaries boundaries = 
+      myParser.segment(STRING_B, new SyllableBoundaries(2));
+    int offset = 0;
+    for (int i = 0; i < boundaries.size(); i++)
+    {
+      ClusterProperties cp = myParser.getNextSyllable(STRING_B, offset);
+      assertEquals(cp.toString(), cp.getStart(), boundaries.getStart(i));
+      assertEquals(cp.toString(), cp.getEnd(), boundaries.getEnd(i));
+      assertEquals(cp.toString(), cp.getBreakStatus(), 
+                   boundaries.getBreakStatus(i));
+      offset = cp.getEnd();
+    }
+    assertEquals(STRING_B.length(), offset);
+    assertEquals(MyanmarParser.PAIR_EOL, 
+                 boundaries.getStatus(boundaries.size() - 1));
+  }
+  /** segment with arrays that are too small for the whole text */
+  public void test_segment_02()
+  {
+    ParseSession session = myParser.newSession(STRING_B);
+    int [] ends = new int[4];
+    byte [] statuses = new byte[4];
+    SyllableBoundaries expected = session.segment(0, new SyllableBoundaries());
+    int offset = 0;
+    int total = 0;
+    while (offset < STRING_B.length())
+    {
+      int count = session.segment(offset, ends, statuses);
+      for (int i = 0; i < count; i++)
+      {
+        assertEquals(expected.getEnd(total), ends[i]);
+        assertEquals(expected.getStatus(total), statuses[i]);
+        ++total;
+      }
+      offset = ends[count - 1];
+    }
+    assertEquals(expected.size(), total);
+  }
+
+  /** bulk segmentation of a char array longer than a classification block */
+  public void test_segment_03()
+  {
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < 3000)
+      sb.append(STRING_B).append("\u2060").append(STRING_D).append(" abc ");
+    char [] text = sb.toString().toCharArray();
+    ParseSession session = myParser.newSession(text, 0, text.length);
+    int [] ends = new int[text.length];
+    byte [] statuses = new byte[text.length];
+    int count = myParser.segment(text, 0, text.length, session.getLanguage(),
+                                 ends, statuses);
+    int offset = 0;
+    for (int i = 0; i < count; i++)
+    {
+      long syllable = session.nextSyllable(offset);
+      assertEquals(MyanmarParser.syllableEnd(syllable), ends[i]);
+      assertEquals(MyanmarParser.syllableStatus(syllable), statuses[i]);
+      offset = ends[i];
+    }
+    assertEquals(text.length, offset);
+  }
+  /** extra rules loaded at run time change only the parser using them */
+  public void test_rules_01()
+  {
+    String text = "မင်း၏ " + STRING_D + " " + STRING_A;
+    BreakRules rules = BreakRules.getDefault().extend(
+      "# keep the genitive symbol with the word before it\n" +
+      "override * U+104F * * = NO\n");
+    MyanmarParser parser = new MyanmarParser(rules);
+    ClusterProperties cp = myParser.getNextSyllable(text, 0);
+    assertEquals(cp.toString(), 4, cp.getEnd());
+    cp = parser.getNextSyllable(text, 0);
+    assertEquals(cp.toString(), 5, cp.getEnd());
+    ParseSession session = myParser.newSession(text, 5, text.length());
+    ParseSession other = parser.newSession(text, 5, text.length());
+    for (int i = 5; i < text.length(); )
+    {
+      ClusterProperties expected = session.getNextSyllable(i);
+      cp = other.getNextSyllable(i);
+      assertEquals(expected.toString(), expected.getEnd(), cp.getEnd());
+      assertEquals(expected.toString(), expected.getBreakStatus(),
+                   cp.getBreakStatus());
+      i = cp.getEnd();
+    }
+  }
+  /** invalid rules are reported with their line */
+  public void test_rules_02()
+  {
+    try
+    {
+      BreakRules.getDefault().extend("table CONSONANT CONSONANT = CONTEXT\n" +
+                                     "context * U+1039 * = NO\n");
+      fail("Rule with 3 patterns accepted");
+    }
+    catch (IllegalArgumentException e)
+    {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Line 2"));
+    }
+    assertEquals(MyanmarParser.PAIR_NO_BREAK, BreakRules.getDefault()
+      .getStatus('အ', 'က', ' ', ' ', MyanmarParser.LANG_MY));
+    assertEquals(MyanmarParser.PAIR_SYL_BREAK, BreakRules.getDefault()
+      .getStatus('အ', 'က', ' ', ' ', MyanmarParser.LANG_KSW));
+  }
+  /** rules naming many characters at one position compile quickly */
+  public void test_rules_03()
+  {
+    StringBuilder extra = new StringBuilder();
+    for (int i = 0; i < 100; i++)
+    {
+      extra.append(String.format("override * U+%04X * * = NO\n", 0x1000 + i));
+    }
+    BreakRules rules = BreakRules.getDefault().extend(extra.toString());
+    for (int i = 0; i < 100; i++)
+    {
+      assertEquals(MyanmarParser.PAIR_NO_BREAK, rules.getStatus(' ', 
+        (char)(0x1000 + i), ' ', ' ', MyanmarParser.LANG_MY));
+    }
+    assertEquals(BreakRules.getDefault().getStatus('x', ' ', 'y', ' ', 
+                   MyanmarParser.LANG_MY), 
+                 rules.getStatus('x', ' ', 'y', ' ', MyanmarParser.LANG_MY));
+    // characters named at every position multiply the work
+    extra.setLength(0);
+    for (int i = 0; i < 60; i++)
+    {
+      String c = String.format("U+%04X", 0x1000 + i);
+      extra.append("override " + c + " " + c + " " + c + " " + c + " = NO\n");
+    }
+    try
+    {
+      BreakRules.getDefault().extend(extra.toString());
+      fail("Rules over the limit accepted");
+    }
+    catch (IllegalArgumentException e)
+    {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Too many"));
+    }
+  }
+  /** a parallel stream should match sequential getNextSyllable */
+  public void test_stream_01()
+  {
+    StringBuilder builder = new StringBuilder();
+    while (builder.length() < 100000)
+    {
+      builder.append(STRING_B).append(" Hello, world! ").append(STRING_D)
+        .append(STRING_C).append("။\n");
+    }
+    String text = builder.toString();
+    ParseSession session = myParser.newSession(text);
+    java.util.Spliterator<Syllable> spliterator = session.spliterator();
+    java.util.Spliterator<Syllable> prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    java.util.List<Syllable> syllables = myParser.stream(text, true)
+      .collect(java.util.stream.Collectors.toList());
+    int i = 0;
+    for (Syllable s : syllables)
+    {
+      ClusterProperties cp = session.getNextSyllable(i);
+      assertEquals(cp.toString(), cp.getStart(), s.getStart());
+      assertEquals(cp.toString(), cp.getEnd(), s.getEnd());
+      assertEquals(cp.toString(), cp.getBreakStatus(), s.getBreakStatus());
+      i = s.getEnd();
+    }
+    assertEquals(text.length(), i);
+  }
+  /** UTF-8 segmentation should give the byte offsets of the UTF-16 ends */
+  public void test_utf8_01()
+  {
+    String text = STRING_B + " caf\u00e9 \uD83D\uDE00" + STRING_D + "\u2060" +
+      STRING_C + " " + STRING_M;
+    byte [] utf8 = text.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    java.nio.ByteBuffer direct = java.nio.ByteBuffer.allocateDirect(
+      utf8.length + 2);
+    direct.put(2, utf8);
+    int language = myParser.guessLanguage(text);
+    assertEquals(language, myParser.guessLanguage(
+      java.nio.ByteBuffer.wrap(utf8), 0, utf8.length));
+    int [] ends = new int[4];
+    byte [] statuses = new byte[4];
+    ParseSession session = myParser.newSession(text);
+    int i = 0;
+    int offset = 0;
+    while (i < text.length())
+    {
+      int count = myParser.segmentUtf8(utf8, offset, utf8.length, language,
+                                       ends, statuses);
+      assertEquals(count, myParser.segmentUtf8(direct, offset + 2,
+        utf8.length + 2, language, new int[4], new byte[4]));
+      for (int j = 0; j < count; j++)
+      {
+        ClusterProperties cp = session.getNextSyllable(i);
+        i = cp.getEnd();
+        assertEquals(cp.toString(), text.substring(0, i).getBytes(
+          java.nio.charset.StandardCharsets.UTF_8).length, ends[j]);
+        assertEquals(cp.toString(), cp.getBreakStatus().getCode(),
+                     statuses[j]);
+      }
+      offset = ends[count - 1];
+    }
+    assertEquals(utf8.length, offset);
+  }
+  /** the illegal pair at the start of the second syllable is found */
+  public void test_check_01()
+  {
+    String text = "က၊ာ " + STRING_D;
+    assertFalse(myParser.isValidMyanmar(text, 0));
+    SegmentResult result = myParser.check(text, new SegmentResult());
+    assertFalse(result.isValid());
+    assertEquals(1, result.getIllegalCount());
+    assertEquals(2, result.getIllegalOffset(0));
+    assertEquals(MyanmarParser.LANG_MY, result.getLanguage());
+    assertEquals(1, result.getStatusCount(MyanmarParser.PAIR_PUNCTUATION));
+    assertEquals(1, result.getStatusCount(MyanmarParser.PAIR_EOL));
+    SyllableBoundaries boundaries =
+      myParser.segment(text, new SyllableBoundaries());
+    assertEquals(boundaries.size(), result.getSyllableCount());
+    for (int i = 0; i < boundaries.size(); i++)
+    {
+      assertEquals(boundaries.getEnd(i), result.getBoundaries().getEnd(i));
+    }
+    ClusterProperties [] errors = myParser.checkMyanmar(text, 0);
+    assertEquals(2, errors.length);
+    assertEquals(errors[0].toString(), 1, errors[0].getStart());
+    assertEquals(errors[0].toString(), 2, errors[0].getEnd());
+    assertEquals(errors[1].toString(), 2, errors[1].getStart());
+    assertTrue(myParser.check(STRING_B, result).isValid());
+    assertNull(myParser.checkMyanmar(STRING_B, 0));
+  }
+  /** lines fit the width and end at line break opportunities */
+  public void test_fit_01()
+  {
+    LineFitter fitter = new LineFitter(myParser, LineFitter.MONOSPACE);
+    int [] lines = fitter.fit(STRING_F, 2, LineFitter.Mode.GREEDY);
+    assertEquals(2, lines.length);
+    assertEquals(3, lines[0]);
+    assertEquals(6, lines[1]);
+    lines = fitter.fit(STRING_F, 10, LineFitter.Mode.MINIMUM_RAGGEDNESS);
+    assertEquals(1, lines.length);
+    double [] raggedness = new double[2];
+    for (LineFitter.Mode mode : LineFitter.Mode.values())
+    {
+      lines = fitter.fit(STRING_B, 10, mode);
+      assertEquals(STRING_B.length(), lines[lines.length - 1]);
+      int start = 0;
+      for (int i = 0; i < lines.length; i++)
+      {
+        double width = LineFitter.MONOSPACE.getWidth(STRING_B, start,
+                                                     lines[i]);
+        assertTrue(mode + " line " + i, width <= 10);
+        if (i < lines.length - 1)
+        {
+          raggedness[mode.ordinal()] += (10 - width) * (10 - width);
+          ClusterProperties cp = myParser.getNextLineBreak(STRING_B, start);
+          while (cp.getEnd() < lines[i])
+            cp = myParser.getNextLineBreak(STRING_B, cp.getEnd());
+          assertEquals(mode + " line " + i, lines[i], cp.getEnd());
+        }
+        start = lines[i];
+      }
+    }
+    assertTrue(raggedness[1] <= raggedness[0]);
+  }
+  /** a quotation only changes the language of its own run */
+  public void test_runs_01()
+  {
+    String quote = " \u201C" + STRING_I + "\u201D ";
+    String text = STRING_C + quote + STRING_C;
+    ParseSession session = myParser.newSession(text);
+    assertEquals(MyanmarParser.LANG_KSW, session.getLanguage());
+    long run = myParser.nextLanguageRun(text, 0, text.length());
+    assertEquals(STRING_C.length(), MyanmarParser.syllableEnd(run));
+    assertEquals(MyanmarParser.LANG_MY, MyanmarParser.syllableStatus(run));
+    run = myParser.nextLanguageRun(text, STRING_C.length() + 2,
+                                   text.length());
+    assertEquals(MyanmarParser.LANG_KSW, MyanmarParser.syllableStatus(run));
+    int [] expected = new int[text.length()];
+    int count = myParser.newSession(STRING_C).segment(0, expected,
+                                                      new byte[expected.length]);
+    // the arrays are too small for the whole text to test continuing
+    int [] ends = new int[3];
+    byte [] statuses = new byte[3];
+    byte [] languages = new byte[3];
+    java.util.List<Integer> allEnds = new java.util.ArrayList<Integer>();
+    java.util.List<Integer> allLanguages = new java.util.ArrayList<Integer>();
+    int offset = 0;
+    while (offset < text.length())
+    {
+      int n = session.segmentRuns(offset, ends, statuses, languages);
+      for (int i = 0; i < n; i++)
+      {
+        allEnds.add(ends[i]);
+        allLanguages.add((int)languages[i]);
+      }
+      offset = ends[n - 1];
+    }
+    int last = allEnds.size() - 1;
+    for (int i = 0; i < count; i++)
+    {
+      assertEquals(expected[i], allEnds.get(i).intValue());
+      assertEquals(MyanmarParser.LANG_MY, allLanguages.get(i).intValue());
+      assertEquals(expected[count - 1 - i] + STRING_C.length() + 
+                   quote.length(), allEnds.get(last - i).intValue());
+      assertEquals(MyanmarParser.LANG_MY, 
+                   allLanguages.get(last - i).intValue());
+    }
+    assertTrue(allLanguages.contains(MyanmarParser.LANG_KSW));
+    // the whole text language breaks after the initial U+1021
+    assertEquals(1, MyanmarParser.syllableEnd(session.nextSyllable(0)));
+  }
+
+  /** the boundary index agrees with segmentation */
+  public void test_index_01()
+  {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 200; i++)
+    {
+      builder.append(STRING_B).append(' ').append(STRING_C).append(". ");
+    }
+    String text = builder.toString();
+    ParseSession session = myParser.newSession(text);
+    BoundaryIndex index = new BoundaryIndex(session, true);
+    SyllableBoundaries boundaries = 
+      session.segment(0, new SyllableBoundaries());
+    assertEquals(boundaries.size(), index.getSyllableCount());
+    for (int i = 0; i < boundaries.size(); i++)
+    {
+      assertEquals(boundaries.getStart(i), index.getSyllableStart(i));
+      assertEquals(boundaries.getEnd(i), index.getSyllableEnd(i));
+    }
+    for (int offset = 0; offset <= text.length(); offset++)
+    {
+      assertEquals(boundaries.indexOf(offset), index.syllableIndexOf(offset));
+    }
+    int line = 0;
+    for (int offset = 0; offset < text.length(); line++)
+    {
+      assertEquals(offset, index.getLineStart(line));
+      assertEquals(line, index.lineIndexOf(offset));
+      offset = session.getNextLineBreak(offset).getEnd();
+    }
+    assertEquals(line, index.getLineCount());
+    assertFalse(new BoundaryIndex(session, false).hasLineBreaks());
+  }
+
+  /** the boundary index of a multiple of 512 syllables */
+  public void test_index_02()
+  {
+    StringBuilder builder = new StringBuilder();
+    while (builder.length() < 20000)
+    {
+      builder.append(STRING_B).append(' ').append(STRING_C).append(". ");
+    }
+    String text = builder.toString();
+    SyllableBoundaries all = myParser.newSession(text)
+      .segment(0, new SyllableBoundaries());
+    for (int count = 512; count <= 1536; count += 512)
+    {
+      ParseSession session = 
+        myParser.newSession(text, 0, all.getEnd(count - 1));
+      BoundaryIndex index = new BoundaryIndex(session, false);
+      SyllableBoundaries boundaries = 
+        session.segment(0, new SyllableBoundaries());
+      assertEquals(count, boundaries.size());
+      assertEquals(count, index.getSyllableCount());
+      for (int i = 0; i < count; i++)
+      {
+        assertEquals(boundaries.getStart(i), index.getSyllableStart(i));
+      }
+      assertEquals(session.getLimit(), index.getSyllableStart(count));
+    }
+  }
+
+  /** a Karen word between Burmese words only changes its own language */
+  public void test_runs_02()
+  {
+    String text = STRING_C + " " + STRING_I + " " + STRING_C;
+    ParseSession session = myParser.newSession(text);
+    int [] ends = new int[text.length()];
+    byte [] statuses = new byte[ends.length];
+    byte [] languages = new byte[ends.length];
+    int n = session.segmentRuns(0, ends, statuses, languages);
+    int [] expected = new int[ends.length];
+    int count = myParser.newSession(STRING_C).segment(0, expected,
+                                                      new byte[ends.length]);
+    int karenStart = STRING_C.length() + 1;
+    int karenEnd = karenStart + STRING_I.length();
+    int start = 0;
+    for (int i = 0; i < n; i++)
+    {
+      int language = (start >= karenStart && start < karenEnd)? 
+        MyanmarParser.LANG_KSW : MyanmarParser.LANG_MY;
+      assertEquals("syllable at " + start, language, languages[i]);
+      start = ends[i];
+    }
+    for (int i = 0; i < count; i++)
+    {
+      assertEquals(expected[i], ends[i]);
+      assertEquals(expected[count - 1 - i] + karenEnd + 1, 
+                   ends[n - 1 - i]);
+    }
+  }
+  /** Myanmar Extended-B consonants start syllables */
+  public void test_extended_b_01()
+  {
+    String text = "\uA9E7\u102C\uA9FA\u103A\uA9F1\uA9F2";
+    ClusterProperties cp = myParser.getNextSyllable(text, 0);
+    assertEquals(cp.toString(), 4, cp.getEnd());
+    assertEquals(cp.toString(), MyanmarParser.MyPairStatus.MY_PAIR_SYL_BREAK,
+                 cp.getBreakStatus());
+    cp = myParser.getNextSyllable(text, 4);
+    assertEquals(cp.toString(), 6, cp.getEnd());
+    assertTrue(myParser.isMyanmarCharacter('\uA9E0'));
+  }
+  /** streaming segmentation with a small buffer should match a session */
+  public void test_reader_01() throws java.io.IOException
+  {
+    String text = STRING_B + " abc " + STRING_I + "\n" + STRING_B;
+    ParseSession session = myParser.newSession(text);
+    SyllableBoundaries expected = session.segment(0, new SyllableBoundaries());
+    SyllableReader reader = new SyllableReader(myParser, 
+      new java.io.StringReader(text), session.getLanguage(), 
+      MyanmarParser.MAX_CONTEXT_LENGTH + 1);
+    int i = 0;
+    while (reader.next())
+    {
+      assertEquals(expected.getStart(i), reader.getStart());
+      assertEquals(expected.getEnd(i), reader.getEnd());
+      assertEquals(expected.getStatus(i), reader.getBreakStatus());
+      ++i;
+    }
+    assertEquals(expected.size(), i);
+    reader.close();
+  }
+  /** streaming segmentation of UTF-8 bytes from a channel */
+  public void test_reader_02() throws java.io.IOException
+  {
+    ParseSession session = myParser.newSession(STRING_I);
+    SyllableBoundaries expected = session.segment(0, new SyllableBoundaries());
+    java.nio.charset.Charset utf8 = java.nio.charset.Charset.forName("UTF-8");
+    SyllableReader reader = new SyllableReader(myParser, 
+      java.nio.channels.Channels.newChannel(
+        new java.io.ByteArrayInputStream(STRING_I.getBytes(utf8))), utf8);
+    int i = 0;
+    while (reader.next())
+    {
+      assertEquals(expected.getEnd(i), reader.getEnd());
+      assertEquals(expected.getStatus(i), reader.getBreakStatus());
+      ++i;
+    }
+    assertEquals(expected.size(), i);
+    assertEquals(MyanmarParser.LANG_KSW, reader.getLanguage());
+    assertFalse(reader.next());
+    reader.close();
+  }
+
+  /** syllable BreakIterator should match getNextSyllable */
+  public void test_iterator_01()
+  {
+    MyanmarBreakIterator bi = 
+      new MyanmarBreakIterator(myParser, MyanmarBreakIterator.SYLLABLE);
+    bi.setText(STRING_B);
+    assertEquals(0, bi.first());
+    int offset = 0;
+    while (offset < STRING_B.length())
+    {
+      ClusterProperties cp = myParser.getNextSyllable(STRING_B, offset);
+      assertEquals(cp.getEnd(), bi.next());
+      offset = cp.getEnd();
+    }
+    assertEquals(BreakIterator.DONE, bi.next());
+    assertEquals(STRING_B.length(), bi.last());
+    assertEquals(myParser.getNextSyllable(STRING_B, 0).getEnd(), 
+                 bi.following(0));
+    assertEquals(0, bi.preceding(bi.current()));
+    assertEquals(BreakIterator.DONE, bi.preceding(0));
+    assertTrue(bi.isBoundary(0));
+    assertFalse(bi.isBoundary(1));
+    assertEquals(STRING_B.length(), bi.last());
+    assertEquals(BreakIterator.DONE, bi.following(STRING_B.length()));
+  }
+  /** line BreakIterator over part of a CharacterIterator */
+  public void test_iterator_02()
+  {
+    String text = "abc " + STRING_F + " xyz";
+    BreakIterator bi = 
+      new MyanmarBreakIterator(myParser, MyanmarBreakIterator.LINE);
+    bi.setText(new StringCharacterIterator(text, 4, 4 + STRING_F.length(), 
+                                           4));
+    assertEquals(4, bi.first());
+    assertEquals(6, bi.next());
+    assertEquals(7, bi.next());
+    assertEquals(4 + STRING_F.length(), bi.next());
+    assertEquals(BreakIterator.DONE, bi.next());
+    assertEquals(6, bi.preceding(7));
+    assertTrue(bi.isBoundary(6));
+    assertFalse(bi.isBoundary(5));
+    assertEquals(6, bi.current());
+  }
+
+  /** backward scanning should find the same boundaries as forward */
+  public void test_prev_01()
+  {
+    String text = STRING_B + " abc " + STRING_D;
+    ParseSession session = myParser.newSession(text);
+    int offset = 0;
+    int lineStart = 0;
+    while (offset < text.length())
+    {
+      ClusterProperties cp = session.getNextSyllable(offset);
+      for (int i = cp.getStart(); i < cp.getEnd(); i++)
+      {
+        assertEquals(cp.getStart(), session.prevSyllable(i + 1));
+        assertEquals(cp.toString(), session.getSyllableAt(i).toString());
+        assertEquals(lineStart, session.prevLineBreak(i + 1));
+      }
+      if (myParser.isLineBreak(cp.getBreakStatus())) lineStart = cp.getEnd();
+      offset = cp.getEnd();
+    }
+    assertEquals(0, session.prevSyllable(0));
+    assertNull(session.getSyllableAt(text.length()));
+  }
+
+  /** incremental segmentation should match segmenting the edited text */
+  public void test_edit_01()
+  {
+    String alphabet = STRING_B + STRING_I + STRING_E + " -\u2060\u1039\u103A";
+    java.util.Random random = new java.util.Random(1);
+    SegmentedText doc = new SegmentedText(myParser, STRING_B);
+    SyllableBoundaries expected = new SyllableBoundaries();
+    for (int edit = 0; edit < 500; edit++)
+    {
+      int length = doc.getText().length();
+      int offset = random.nextInt(length + 1);
+      int removed = random.nextInt(Math.min(4, length - offset) + 1);
+      StringBuilder inserted = new StringBuilder();
+      for (int i = random.nextInt(4); i > 0; i--)
+        inserted.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      doc.edit(offset, removed, inserted);
+      String text = doc.getText().toString();
+      myParser.segment(text, expected);
+      SyllableBoundaries actual = doc.getBoundaries();
+      assertEquals(text, expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); i++)
+      {
+        assertEquals(text, expected.getEnd(i), actual.getEnd(i));
+        assertEquals(text, expected.getStatus(i), actual.getStatus(i));
+      }
+      assertEquals(myParser.guessLanguage(text), doc.getLanguage());
+    }
+  }
+  /** an edit should only replace the syllables around it */
+  public void test_edit_02()
+  {
+    SegmentedText doc = new SegmentedText(myParser, STRING_B + STRING_B);
+    int count = doc.getBoundaries().size();
+    doc.edit(STRING_B.length() + 1, 0, "\u103B");
+    assertTrue(doc.getFirstChanged() > 0);
+    assertTrue(doc.getReplacedCount() < 4);
+    assertEquals(count, doc.getBoundaries().size());
+    assertEquals(2 * STRING_B.length() + 1, 
+                 doc.getBoundaries().getEnd(count - 1));
+  }
+
+  /** a cursor should visit the same syllables as getNextSyllable */
+  public void test_cursor_01()
+  {
+    ParseSession session = myParser.newSession(STRING_I);
+    SyllableCursor cursor = session.cursor();
+    int offset = 0;
+    while (cursor.advance())
+    {
+      ClusterProperties cp = session.getNextSyllable(offset);
+      assertEquals(cp.getStart(), cursor.getStart());
+      assertEquals(cp.getEnd(), cursor.getEnd());
+      assertEquals(cp.getBreakStatus(), cursor.getBreakStatus());
+      assertEquals(MyanmarParser.LANG_KSW, cursor.getLanguage());
+      offset = cp.getEnd();
+    }
+    assertEquals(STRING_I.length(), offset);
+    Syllable last = cursor.toSyllable();
+    assertEquals(MyanmarParser.PAIR_EOL, last.getStatus());
+    cursor.reset(0);
+    assertTrue(cursor.advance());
+    assertFalse(last.equals(cursor.toSyllable()));
+    assertEquals(cursor.toSyllable(), new Syllable(0, cursor.getEnd(), 
+      cursor.getStatus(), MyanmarParser.LANG_KSW));
+  }
+
+  /** the shared parser should give the same results on many threads */
+  public void test_shared_01() throws InterruptedException
+  {
+    final String text = STRING_B + " " + STRING_I + " " + STRING_D;
+    final SyllableBoundaries expected = 
+      myParser.segment(text, new SyllableBoundaries());
+    final boolean [] ok = new boolean[4];
+    Thread [] threads = new Thread[ok.length];
+    for (int t = 0; t < threads.length; t++)
+    {
+      final int index = t;
+      threads[t] = new Thread(new Runnable() {
+        public void run()
+        {
+          boolean same = true;
+          SyllableBoundaries actual = new SyllableBoundaries();
+          for (int r = 0; r < 200 && same; r++)
+          {
+            MyanmarParser.getInstance().segment(text, actual);
+            same = (actual.size() == expected.size());
+            for (int i = 0; i < actual.size() && same; i++)
+              same = actual.getEnd(i) == expected.getEnd(i) &&
+                actual.getStatus(i) == expected.getStatus(i);
+          }
+          ok[index] = same;
+        }
+      });
+      threads[t].start();
+    }
+    for (int t = 0; t < threads.length; t++)
+    {
+      threads[t].join();
+      assertTrue(ok[t]);
+    }
+    assertSame(MyanmarParser.getInstance(), MyanmarParser.getInstance());
+  }
+
   /** run the test suite 
    * @return test setup 
    */
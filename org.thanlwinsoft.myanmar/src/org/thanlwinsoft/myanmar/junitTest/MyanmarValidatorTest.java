@@ -7,8 +7,15 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
+import org.thanlwinsoft.myanmar.ValidationEvent;
+import org.thanlwinsoft.myanmar.ValidationListener;
+import org.thanlwinsoft.myanmar.ValidationRule;
+import org.thanlwinsoft.myanmar.ValidationSession;
 import org.thanlwinsoft.myanmar.Validator;
 import org.thanlwinsoft.myanmar.MyanmarValidator;
 
@@ -565,4 +572,197 @@ public class MyanmarValidatorTest
     {
     	check("\u1010\u1039\u101E\u1039\u1014", Validator.Status.Valid);
     }
+    /**
+     * Tai Laing from Myanmar Extended-B
+     */
+    @Test
+    public void testExtendedB1()
+    {
+    	check("\uA9E7\u102C\uA9FA\u103A", Validator.Status.Valid);
+    }
+    /**
+     * a vowel and asat without a consonant before them
+     */
+    @Test
+    public void testValidateInvalid4()
+    {
+    	validate("\u102F\u103A", "\u103A\u102F", Validator.Status.Invalid);
+    }
+    /**
+     * String and char array ranges are validated without a reader
+     */
+    @Test
+    public void testValidateRange() throws IOException
+    {
+        Validator mv = new MyanmarValidator();
+        StringBuilder builder = new StringBuilder();
+        assertEquals(Validator.Status.Corrected,
+                     mv.validate("abc \u1031\u1040", builder));
+        assertEquals("abc \u101D\u1031", builder.toString());
+        char [] text = "x\u1031\u1040 abc\u1000y".toCharArray();
+        CharBuffer output = CharBuffer.allocate(text.length);
+        assertEquals(Validator.Status.Corrected,
+                     mv.validate(text, 1, text.length - 1, output));
+        output.flip();
+        assertEquals("\u101D\u1031 abc\u1000", output.toString());
+    }
+    /**
+     * listeners receive each rule with the syllable before and after it
+     */
+    @Test
+    public void testValidationListener()
+    {
+        final List<String> events = new ArrayList<String>();
+        ValidationListener listener = new ValidationListener()
+        {
+            public void validationEvent(ValidationEvent e)
+            {
+                events.add(e.getRule() + " " + e.getLine() + " " +
+                           e.getColumn() + "," + e.getEndColumn() + " " +
+                           e.getOriginal() + ">" + e.getCorrected());
+            }
+        };
+        MyanmarValidator mv = new MyanmarValidator();
+        mv.addValidationListener(listener);
+        StringBuilder builder = new StringBuilder();
+        assertEquals(Validator.Status.Corrected, mv.validate(
+            "ab \u1031\u1040 \u1000\u102F\u102D\u1000\n" +
+            "\u1044\u1004\u103A\u1038", builder));
+        assertEquals(3, events.size());
+        assertEquals(ValidationRule.PREFIX_ZERO_WA + " 1 3,5 " +
+                     "\u1031\u1040>\u101D\u1031", events.get(0));
+        assertEquals(ValidationRule.LOWER_UPPER_VOWEL_ORDER + " 1 6,9 " +
+                     "\u1000\u102F\u102D>\u1000\u102D\u102F", 
+                     events.get(1));
+        assertEquals(ValidationRule.DIGIT_FOUR + " 2 0,4 " +
+                     "\u1044\u1004\u103A\u1038>\u104E\u1004\u103A\u1038",
+                     events.get(2));
+        mv.removeValidationListener(listener);
+        mv.validate("\u1000\u102F\u102D", null);
+        assertEquals(3, events.size());
+    }
+    /**
+     * sessions of one validator keep their own position and error count
+     */
+    @Test
+    public void testValidationSessions() throws IOException
+    {
+        final List<String> refs = new ArrayList<String>();
+        MyanmarValidator mv = new MyanmarValidator(8);
+        mv.addValidationListener(new ValidationListener()
+        {
+            public void validationEvent(ValidationEvent e)
+            {
+                refs.add(e.getRef() + " " + e.getLine());
+            }
+        });
+        ValidationSession a = mv.newSession("a");
+        ValidationSession b = mv.newSession("b");
+        StringBuilder output = new StringBuilder();
+        assertEquals(Validator.Status.Corrected, 
+                     a.validate("\t\u1000\n\u1000\u102F\u102D", output));
+        assertEquals("\t\u1000\n\u1000\u102D\u102F", output.toString());
+        assertEquals(Validator.Status.Valid, 
+                     b.validate("\u1000\u102D\u102F", null));
+        assertEquals(2, a.getLineNumber());
+        assertEquals(3, a.getColumn());
+        assertEquals(1, a.getErrorCount());
+        assertEquals(1, b.getLineNumber());
+        assertEquals(0, b.getErrorCount());
+        assertEquals(0, mv.getErrorCount());
+        assertEquals(1, refs.size());
+        assertEquals("a 2", refs.get(0));
+        a.reset();
+        assertEquals(0, a.getErrorCount());
+    }
+    /**
+     * event columns span the characters read, even when the rule changes
+     * the length of the syllable, and events can be kept
+     */
+    @Test
+    public void testValidationEventColumns()
+    {
+        final List<ValidationEvent> events = new ArrayList<ValidationEvent>();
+        MyanmarValidator mv = new MyanmarValidator();
+        mv.addValidationListener(new ValidationListener()
+        {
+            public void validationEvent(ValidationEvent e)
+            {
+                events.add(e);
+            }
+        });
+        mv.validate("xy \u1000\u102D\u102D z\n\t\u1000\u103A\u103A", null);
+        assertEquals(2, events.size());
+        ValidationEvent duplicate = events.get(0);
+        assertEquals(ValidationRule.DUPLICATE, duplicate.getRule());
+        assertEquals(1, duplicate.getLine());
+        assertEquals(3, duplicate.getColumn());
+        assertEquals(6, duplicate.getEndColumn());
+        assertEquals("\u1000\u102D\u102D", duplicate.getOriginal());
+        assertEquals("\u1000\u102D", duplicate.getCorrected());
+        ValidationEvent asat = events.get(1);
+        assertEquals(ValidationRule.DUPLICATE_ASAT, asat.getRule());
+        assertEquals(2, asat.getLine());
+        assertEquals(4, asat.getColumn());
+        assertEquals(7, asat.getEndColumn());
+    }
+    /**
+     * a Validator which only implements the original methods can validate
+     * ranges with the default methods
+     */
+    @Test
+    public void testValidatorDefaults() throws IOException
+    {
+        Validator upper = new Validator()
+        {
+            public Status validate(String input, StringBuilder output)
+            {
+                output.append(input.toUpperCase());
+                return input.equals(input.toUpperCase())? 
+                    Status.Valid : Status.Corrected;
+            }
+            public Status validate(BufferedReader r, BufferedWriter w)
+            {
+                return Status.Valid;
+            }
+            public long getLineNumber() { return 1; }
+            public long getColumn() { return 0; }
+            public long getErrorCount() { return 0; }
+            public void reset() {}
+        };
+        StringBuilder output = new StringBuilder("[");
+        assertEquals(Validator.Status.Corrected, 
+                     upper.validate("xabcx", 1, 4, output));
+        assertEquals("[ABC", output.toString());
+        CharBuffer buffer = CharBuffer.allocate(2);
+        assertEquals(Validator.Status.Valid, 
+                     upper.validate("AB".toCharArray(), 0, 2, buffer));
+        buffer.flip();
+        assertEquals("AB", buffer.toString());
+    }
+    /**
+     * the tab width and listeners apply to the shared session whenever they
+     * are set
+     */
+    @Test
+    public void testSharedSessionSettings()
+    {
+        final List<String> events = new ArrayList<String>();
+        MyanmarValidator mv = new MyanmarValidator();
+        mv.validate("\t", null);
+        assertEquals(4, mv.getColumn());
+        mv.setTabWidth(8);
+        mv.addValidationListener(new ValidationListener()
+        {
+            public void validationEvent(ValidationEvent e)
+            {
+                events.add(e.getColumn() + "," + e.getEndColumn());
+            }
+        });
+        mv.reset();
+        mv.validate("\t\u1000\u102F\u102D", null);
+        assertEquals(11, mv.getColumn());
+        assertEquals(1, events.size());
+        assertEquals("8,11", events.get(0));
+    }
 }
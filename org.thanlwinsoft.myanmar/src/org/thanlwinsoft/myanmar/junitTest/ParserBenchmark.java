@@ -0,0 +1,139 @@
+/*
+* Title: ParserBenchmark
+* Description: Multi-threaded throughput of a shared MyanmarParser
+* Copyright:   2026 http://www.thanlwinsoft.org
+*
+* This library is free software; you can redistribute it and/or
+* modify it under the terms of the GNU Lesser General Public
+* License as published by the Free Software Foundation; either
+* version 2 of the License, or (at your option) any later version.
+*
+* This library is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU Lesser General Public License for more details.
+*
+* You should have received a copy of the GNU Lesser General Public
+* License along with this program; if not, write to the
+* Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+* Boston, MA  02111-1307  USA
+*/
+package org.thanlwinsoft.myanmar.junitTest;
+
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+
+import org.thanlwinsoft.myanmar.MyanmarParser;
+import org.thanlwinsoft.myanmar.SyllableCursor;
+
+/**
+ * Measures how syllable segmentation with the shared MyanmarParser scales
+ * with the number of threads. Every thread segments the same text with
+ * MyanmarParser.getInstance() and the syllable counts are checked against
+ * a single threaded run.
+ * Usage: ParserBenchmark [text file or "" for a sample] [max threads] [rounds]
+ */
+public class ParserBenchmark
+{
+	private static final String SAMPLE = 
+		"ယုံကြည်သောအားဖြင့်ကျေးဇူးတော်ကြောင့်ကယ်တင်ခြင်းသို့ရောက်ရ၏။ " +
+		"ဘာ လဲ။ abc 123 ဟ့အဒီပုၢ်ဝဲၢ်န့ၣ် ";
+
+	private static int countSyllables(String text)
+	{
+		SyllableCursor cursor = 
+			MyanmarParser.getInstance().newSession(text).cursor();
+		int count = 0;
+		while (cursor.advance()) ++count;
+		return count;
+	}
+
+	/**
+	 * @param text
+	 * @param threads
+	 * @param rounds number of times each thread segments the text
+	 * @return elapsed nanoseconds
+	 */
+	private static long run(final String text, int threads, final int rounds,
+	                        final int expected) throws InterruptedException
+	{
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads);
+		final boolean [] failed = new boolean[1];
+		for (int t = 0; t < threads; t++)
+		{
+			new Thread(new Runnable() {
+				public void run()
+				{
+					try
+					{
+						start.await();
+						for (int r = 0; r < rounds; r++)
+						{
+							if (countSyllables(text) != expected)
+								failed[0] = true;
+						}
+					}
+					catch (InterruptedException e)
+					{
+						failed[0] = true;
+					}
+					finally
+					{
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+		long startTime = System.nanoTime();
+		start.countDown();
+		done.await();
+		long elapsed = System.nanoTime() - startTime;
+		if (failed[0])
+			throw new IllegalStateException("Syllable counts differ with " + 
+				threads + " threads");
+		return elapsed;
+	}
+
+	/**
+	 * @param args text file, maximum number of threads, rounds per thread
+	 * @throws IOException 
+	 * @throws InterruptedException 
+	 */
+	public static void main(String[] args) 
+		throws IOException, InterruptedException
+	{
+		String text;
+		if (args.length > 0 && args[0].length() > 0)
+			text = new String(Files.readAllBytes(Paths.get(args[0])), 
+			                  Charset.forName("UTF-8"));
+		else
+		{
+			StringBuilder sb = new StringBuilder();
+			while (sb.length() < 1 << 20) sb.append(SAMPLE);
+			text = sb.toString();
+		}
+		int maxThreads = (args.length > 1)? Integer.parseInt(args[1]) :
+			Runtime.getRuntime().availableProcessors();
+		int rounds = (args.length > 2)? Integer.parseInt(args[2]) : 20;
+		int expected = countSyllables(text);
+		// warm up
+		run(text, 1, rounds, expected);
+		System.out.println("Threads\tMchar/s\tSpeedup");
+		double single = 0;
+		for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads))
+		{
+			long elapsed = run(text, threads, rounds, expected);
+			double rate = (double)text.length() * rounds * threads * 1000.0 /
+				elapsed;
+			if (threads == 1) single = rate;
+			System.out.println(threads + "\t" + String.format("%.1f", rate) + 
+				"\t" + String.format("%.2f", rate / single));
+			if (threads == maxThreads) break;
+		}
+	}
+}